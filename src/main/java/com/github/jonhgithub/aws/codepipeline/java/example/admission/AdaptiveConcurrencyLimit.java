@@ -0,0 +1,105 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adapting to observed latency, in the style of TCP Vegas with an AIMD backoff.
+ *
+ * The lowest latency seen is taken as the latency without queueing. From a sample the number of queued
+ * requests is estimated as limit * (1 - noLoadRtt / rtt): the limit grows by log10(limit) while that estimate
+ * is small and shrinks by log10(limit) when it is large. A dropped request (error or server failure) cuts the
+ * limit multiplicatively. The no load latency is re-probed every probeInterval samples so a permanent latency
+ * change, e.g. a bigger catalogue, is not mistaken for queueing.
+ *
+ * Acquire and release are lock free, samples are applied under the instance lock.
+ *
+ * @author Jon Harvey
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private long noLoadRtt = Long.MAX_VALUE;
+    private int samples;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.limit = initialLimit;
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @param share fraction of the limit the caller may fill
+     * @return in flight count including the new request, or 0 when the request is rejected
+     */
+    int tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @param rttNanos latency of the request
+     * @param inFlightAtStart in flight count when the request was admitted
+     */
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (++samples % probeInterval == 0) {
+            noLoadRtt = rttNanos;
+        }
+        else if (rttNanos < noLoadRtt) {
+            noLoadRtt = rttNanos;
+        }
+
+        double current = limit;
+        double log = Math.max(1, Math.log10(current));
+        double queue = current * (1 - (double) noLoadRtt / Math.max(1, rttNanos));
+
+        if (queue >= 6 * log) {
+            current -= log;
+        }
+        // Only grow while the limit is actually used, an idle service would otherwise grow it without bound
+        else if (queue <= 3 * log && inFlightAtStart * 2 >= current) {
+            current += log;
+        }
+        limit = clamp(current);
+    }
+
+    synchronized void onDrop() {
+        limit = clamp(limit * BACKOFF_RATIO);
+    }
+
+    private double clamp(double value) {
+        return Math.min(maxLimit, Math.max(minLimit, value));
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebFilter admitting a request only while both the global and its endpoint concurrency limit allow it.
+ * Requests over the limit are rejected at once with 429 and Retry-After rather than queued, so admitted
+ * requests keep their latency during a spike.
+ *
+ * Endpoint limits adapt from the latency of the requests they admit, see AdaptiveConcurrencyLimit. The global
+ * limit is fixed: endpoint latencies differ by orders of magnitude, so a limit learning from all of them would take
+ * the no load latency of single item reads and then read every list scan as queueing. Each priority class may fill
+ * only its share of the global limit, which keeps room for single item reads while list and stream scans are shed.
+ * Streamed responses are not sampled, their duration says nothing about queueing.
+ *
+ * Endpoints are the method and path with numeric segments replaced by {id}.
+ *
+ * @author Jon Harvey
+ */
+public class AdmissionControlFilter implements WebFilter, Ordered {
+
+    static final String ID_SEGMENT = "{id}";
+
+    static final String GLOBAL = "all";
+
+    private static final int MAX_ENDPOINTS = 256;
+    private static final String OTHER = "other";
+
+    private static final byte[] REJECTION_BODY = ("{\"errors\":[{\"code\":429,\"message\":\"Too many requests\","
+        + "\"description\":\"Service is overloaded, retry later\"}]}").getBytes(StandardCharsets.UTF_8);
+
+    private final String pathPrefix;
+    private final AdaptiveConcurrencyLimit global;
+    private final Supplier<AdaptiveConcurrencyLimit> endpointLimits;
+    private final Map<Priority, Double> shares;
+    private final String retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(String pathPrefix, int globalLimit,
+        Supplier<AdaptiveConcurrencyLimit> endpointLimits, Map<Priority, Double> shares, Duration retryAfter,
+        MeterRegistry meterRegistry) {
+
+        this(pathPrefix, globalLimit, endpointLimits, shares, retryAfter, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime clock the request latencies are measured with
+     */
+    AdmissionControlFilter(String pathPrefix, int globalLimit, Supplier<AdaptiveConcurrencyLimit> endpointLimits,
+        Map<Priority, Double> shares, Duration retryAfter, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+
+        this.pathPrefix = pathPrefix;
+        this.global = new AdaptiveConcurrencyLimit(globalLimit, globalLimit, globalLimit, Integer.MAX_VALUE);
+        this.endpointLimits = endpointLimits;
+        this.shares = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            this.shares.put(priority, shares.getOrDefault(priority, 1.0));
+        }
+        this.retryAfter = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+
+        registerGauges(GLOBAL, null, global);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.startsWith(pathPrefix)) {
+            return chain.filter(exchange);
+        }
+
+        Endpoint endpoint = endpoint(exchange.getRequest().getMethod(), path);
+        return Mono.defer(() -> {
+            if (global.tryAcquire(shares.get(endpoint.priority)) == 0) {
+                return reject(exchange, endpoint);
+            }
+            int endpointInFlight = endpoint.limit.tryAcquire(1.0);
+            if (endpointInFlight == 0) {
+                global.release();
+                return reject(exchange, endpoint);
+            }
+
+            long start = nanoTime.getAsLong();
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    global.release();
+                    endpoint.limit.release();
+                    sample(exchange, signal, nanoTime.getAsLong() - start, endpoint, endpointInFlight);
+                });
+        });
+    }
+
+    private void sample(ServerWebExchange exchange, SignalType signal, long rttNanos, Endpoint endpoint,
+        int endpointInFlight) {
+
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+            endpoint.limit.onDrop();
+        }
+        else if (signal == SignalType.ON_COMPLETE && !isStreaming(exchange.getResponse())) {
+            endpoint.limit.onSample(rttNanos, endpointInFlight);
+        }
+    }
+
+    private boolean isStreaming(ServerHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null
+            && (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)
+                || MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Endpoint endpoint) {
+        endpoint.rejected.increment();
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(REJECTION_BODY)));
+    }
+
+    private Endpoint endpoint(HttpMethod method, String path) {
+        String name = method + " " + normalize(path);
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        // Paths come from clients, unknown ones share one limit so they cannot grow the map without bound
+        if (endpoints.size() >= MAX_ENDPOINTS) {
+            name = OTHER;
+        }
+        Priority priority = name.equals(OTHER) ? Priority.BULK : Priority.of(method, name);
+        return endpoints.computeIfAbsent(name, key -> new Endpoint(key, priority));
+    }
+
+    static String normalize(String path) {
+        StringBuilder normalized = new StringBuilder(path.length());
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (start > 0) {
+                normalized.append('/');
+            }
+            normalized.append(isNumber(path, start, end) ? ID_SEGMENT : path.substring(start, end));
+            start = end + 1;
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isNumber(String path, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if ((c < '0' || c > '9') && !(c == '-' && i == start && end - start > 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void registerGauges(String name, Priority priority, AdaptiveConcurrencyLimit limit) {
+        String priorityTag = priority == null ? GLOBAL : priority.name();
+        Gauge.builder("catalogue.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+            .description("Current concurrency limit")
+            .tags("endpoint", name, "priority", priorityTag)
+            .register(meterRegistry);
+        Gauge.builder("catalogue.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+            .description("Requests in flight")
+            .tags("endpoint", name, "priority", priorityTag)
+            .register(meterRegistry);
+    }
+
+    private final class Endpoint {
+
+        private final Priority priority;
+        private final AdaptiveConcurrencyLimit limit;
+        private final Counter rejected;
+
+        private Endpoint(String name, Priority priority) {
+            this.priority = priority;
+            this.limit = endpointLimits.get();
+            this.rejected = Counter.builder("catalogue.admission.rejected")
+                .description("Requests rejected with 429")
+                .tags("endpoint", name, "priority", priority.name())
+                .register(meterRegistry);
+            registerGauges(name, priority, limit);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.admission;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Priority classes of admission control. Each class may only fill its share of the global concurrency limit,
+ * so when the service is saturated list and stream scans are shed first and single item reads last.
+ *
+ * @author Jon Harvey
+ */
+public enum Priority {
+
+    /**
+     * Single item reads.
+     */
+    CRITICAL,
+
+    /**
+     * Creates, updates and deletes.
+     */
+    NORMAL,
+
+    /**
+     * List and stream scans.
+     */
+    BULK;
+
+    /**
+     * @param method
+     * @param endpoint normalized path, see AdmissionControlFilter
+     * @return priority of the endpoint
+     */
+    static Priority of(HttpMethod method, String endpoint) {
+        if (method != HttpMethod.GET) {
+            return NORMAL;
+        }
+        return endpoint.endsWith(AdmissionControlFilter.ID_SEGMENT) ? CRITICAL : BULK;
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decoder of the application/x-catalogue-item format, the counterpart of CatalogueItemBinaryEncoder which
+ * documents the layout. Fields are read at their offsets in the header, only the strings are copied.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueItemBinaryDecoder implements Decoder<CatalogueItem> {
+
+    private int maxInMemorySize = 256 * 1024;
+
+    public void setMaxInMemorySize(int byteCount) {
+        this.maxInMemorySize = byteCount;
+    }
+
+    public int getMaxInMemorySize() {
+        return this.maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return CatalogueItem.class == elementType.toClass() && mimeType != null
+            && CatalogueItemBinaryEncoder.MIME_TYPE.isCompatibleWith(mimeType);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return List.of(CatalogueItemBinaryEncoder.MIME_TYPE);
+    }
+
+    @Override
+    public Flux<CatalogueItem> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+        MimeType mimeType, Map<String, Object> hints) {
+
+        return DataBufferUtils.join(inputStream, this.maxInMemorySize)
+            .flatMapIterable(buffer -> {
+                try {
+                    return readItems(buffer);
+                }
+                finally {
+                    DataBufferUtils.release(buffer);
+                }
+            });
+    }
+
+    @Override
+    public Mono<CatalogueItem> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+        MimeType mimeType, Map<String, Object> hints) {
+
+        return DataBufferUtils.join(inputStream, this.maxInMemorySize)
+            .map(buffer -> decode(buffer, elementType, mimeType, hints));
+    }
+
+    @Override
+    public CatalogueItem decode(DataBuffer buffer, ResolvableType targetType,
+        MimeType mimeType, Map<String, Object> hints) throws DecodingException {
+
+        try {
+            List<CatalogueItem> items = readItems(buffer);
+            if (items.size() != 1) {
+                throw new DecodingException("Expected one catalogue item, found " + items.size());
+            }
+            return items.get(0);
+        }
+        finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static List<CatalogueItem> readItems(DataBuffer dataBuffer) {
+        ByteBuffer buffer = dataBuffer.asByteBuffer();
+        List<CatalogueItem> items = new ArrayList<>();
+        int position = buffer.position();
+        while (position < buffer.limit()) {
+            position = readItem(buffer, position, items);
+        }
+        return items;
+    }
+
+    /**
+     * @return position of the next record
+     */
+    private static int readItem(ByteBuffer buffer, int position, List<CatalogueItem> items) {
+        if (buffer.limit() - position < CatalogueItemBinaryEncoder.HEADER_SIZE) {
+            throw new DecodingException("Truncated catalogue item header at byte " + position);
+        }
+        int nameLength = buffer.getShort(position + 46) & 0xFFFF;
+        int descriptionLength = buffer.getShort(position + 48) & 0xFFFF;
+        int categoryLength = buffer.getShort(position + 50) & 0xFFFF;
+        int end = position + CatalogueItemBinaryEncoder.HEADER_SIZE + length(nameLength) + length(descriptionLength)
+            + length(categoryLength);
+        if (end > buffer.limit()) {
+            throw new DecodingException("Truncated catalogue item at byte " + position);
+        }
+
+        try {
+            CatalogueItem item = new CatalogueItem();
+            int present = buffer.get(position);
+            if ((present & CatalogueItemBinaryEncoder.ID) != 0) {
+                item.setId(buffer.getLong(position + 1));
+            }
+            if ((present & CatalogueItemBinaryEncoder.PRICE) != 0) {
+                item.setPrice(buffer.getDouble(position + 9));
+            }
+            if ((present & CatalogueItemBinaryEncoder.INVENTORY) != 0) {
+                item.setInventory(buffer.getInt(position + 17));
+            }
+            if ((present & CatalogueItemBinaryEncoder.CREATED_ON) != 0) {
+                item.setCreatedOn(Instant.ofEpochSecond(buffer.getLong(position + 21), buffer.getInt(position + 29)));
+            }
+            if ((present & CatalogueItemBinaryEncoder.UPDATED_ON) != 0) {
+                item.setUpdatedOn(Instant.ofEpochSecond(buffer.getLong(position + 33), buffer.getInt(position + 41)));
+            }
+
+            // Setters of @NonNull fields reject null, absent strings are left unset
+            int offset = position + CatalogueItemBinaryEncoder.HEADER_SIZE;
+            if (nameLength != CatalogueItemBinaryEncoder.NULL_LENGTH) {
+                item.setName(readString(buffer, offset, nameLength));
+            }
+            offset += length(nameLength);
+            if (descriptionLength != CatalogueItemBinaryEncoder.NULL_LENGTH) {
+                item.setDescription(readString(buffer, offset, descriptionLength));
+            }
+            offset += length(descriptionLength);
+
+            int categoryCode = buffer.get(position + 45) & 0xFF;
+            if (categoryCode == 0) {
+                if (categoryLength != CatalogueItemBinaryEncoder.NULL_LENGTH) {
+                    item.setCategory(readString(buffer, offset, categoryLength));
+                }
+            }
+            else if (categoryCode <= CatalogueItemBinaryEncoder.CATEGORIES.length) {
+                item.setCategory(CatalogueItemBinaryEncoder.CATEGORIES[categoryCode - 1].getValue());
+            }
+            else {
+                throw new DecodingException("Unknown category code " + categoryCode + " at byte " + position);
+            }
+
+            items.add(item);
+            return end;
+        }
+        catch (DateTimeException ex) {
+            throw new DecodingException("Invalid timestamp at byte " + position + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static int length(int length) {
+        return length == CatalogueItemBinaryEncoder.NULL_LENGTH ? 0 : length;
+    }
+
+    private static String readString(ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
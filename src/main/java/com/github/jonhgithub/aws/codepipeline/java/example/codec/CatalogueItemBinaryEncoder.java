@@ -0,0 +1,179 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.Category;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Encoder of the application/x-catalogue-item format, a fixed layout binary record per CatalogueItem for
+ * server-to-server clients. A client which knows the layout reads every field at a known offset, without parsing
+ * field names or numbers.
+ *
+ * A record is a 52 byte header followed by the UTF-8 strings, numbers are big-endian:
+ *
+ * <pre>
+ *  0  int8     fields present: 1 id, 2 price, 4 inventory, 8 createdOn, 16 updatedOn, 0 in their slots otherwise
+ *  1  int64    id
+ *  9  float64  price
+ * 17  int32    inventory
+ * 21  int64    createdOn epoch second
+ * 29  int32    createdOn nano of second
+ * 33  int64    updatedOn epoch second
+ * 41  int32    updatedOn nano of second
+ * 45  uint8    category, 1 + ordinal of the Category whose value it is, 0 when sent as a string
+ * 46  uint16   name length in bytes, 0xFFFF for null
+ * 48  uint16   description length in bytes, 0xFFFF for null
+ * 50  uint16   category length in bytes, 0xFFFF for null or sent as a code
+ * 52  bytes    name, description and category
+ * </pre>
+ *
+ * The length of a record follows from its header, so a Flux is written as records back to back, one buffer per
+ * item. Category constants may only be appended, the codes of existing ones are part of the format.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueItemBinaryEncoder implements Encoder<CatalogueItem> {
+
+    public static final String MIME_TYPE_VALUE = "application/x-catalogue-item";
+
+    static final MimeType MIME_TYPE = MimeType.valueOf(MIME_TYPE_VALUE);
+
+    static final int HEADER_SIZE = 52;
+    static final int NULL_LENGTH = 0xFFFF;
+
+    static final int ID = 1;
+    static final int PRICE = 2;
+    static final int INVENTORY = 4;
+    static final int CREATED_ON = 8;
+    static final int UPDATED_ON = 16;
+
+    static final Category[] CATEGORIES = Category.values();
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return CatalogueItem.class == elementType.toClass() && mimeType != null && MIME_TYPE.isCompatibleWith(mimeType);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return List.of(MIME_TYPE);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends CatalogueItem> inputStream, DataBufferFactory bufferFactory,
+        ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                .map(item -> encodeValue(item, bufferFactory, elementType, mimeType, hints))
+                .flux();
+        }
+        return Flux.from(inputStream)
+            .map(item -> encodeValue(item, bufferFactory, elementType, mimeType, hints));
+    }
+
+    @Override
+    public DataBuffer encodeValue(CatalogueItem item, DataBufferFactory bufferFactory,
+        ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+
+        int categoryCode = categoryCode(item.getCategory());
+        byte[] name = bytes(item.getName());
+        byte[] description = bytes(item.getDescription());
+        byte[] category = categoryCode == 0 ? bytes(item.getCategory()) : null;
+
+        DataBuffer buffer = bufferFactory.allocateBuffer(HEADER_SIZE + length(name) + length(description)
+            + length(category));
+        try {
+            buffer.write((byte) ((item.getId() != null ? ID : 0)
+                | (item.getPrice() != null ? PRICE : 0)
+                | (item.getInventory() != null ? INVENTORY : 0)
+                | (item.getCreatedOn() != null ? CREATED_ON : 0)
+                | (item.getUpdatedOn() != null ? UPDATED_ON : 0)));
+            writeLong(buffer, item.getId() != null ? item.getId() : 0);
+            writeLong(buffer, Double.doubleToRawLongBits(item.getPrice() != null ? item.getPrice() : 0));
+            writeInt(buffer, item.getInventory() != null ? item.getInventory() : 0);
+            writeInstant(buffer, item.getCreatedOn());
+            writeInstant(buffer, item.getUpdatedOn());
+            buffer.write((byte) categoryCode);
+            writeLength(buffer, name);
+            writeLength(buffer, description);
+            writeLength(buffer, category);
+            writeBytes(buffer, name);
+            writeBytes(buffer, description);
+            writeBytes(buffer, category);
+            return buffer;
+        }
+        catch (RuntimeException ex) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("Could not encode catalogue item: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Category values as stored are sent as a code, any other spelling as is.
+     */
+    private static int categoryCode(String category) {
+        if (category != null) {
+            for (Category constant : CATEGORIES) {
+                if (constant.getValue().equals(category)) {
+                    return constant.ordinal() + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static void writeInstant(DataBuffer buffer, Instant instant) {
+        writeLong(buffer, instant != null ? instant.getEpochSecond() : 0);
+        writeInt(buffer, instant != null ? instant.getNano() : 0);
+    }
+
+    private static void writeLength(DataBuffer buffer, byte[] bytes) {
+        if (bytes != null && bytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes over the limit of "
+                + (NULL_LENGTH - 1));
+        }
+        int length = bytes != null ? bytes.length : NULL_LENGTH;
+        buffer.write((byte) (length >>> 8));
+        buffer.write((byte) length);
+    }
+
+    private static void writeBytes(DataBuffer buffer, byte[] bytes) {
+        if (bytes != null) {
+            buffer.write(bytes);
+        }
+    }
+
+    private static void writeInt(DataBuffer buffer, int value) {
+        buffer.write((byte) (value >>> 24));
+        buffer.write((byte) (value >>> 16));
+        buffer.write((byte) (value >>> 8));
+        buffer.write((byte) value);
+    }
+
+    private static void writeLong(DataBuffer buffer, long value) {
+        writeInt(buffer, (int) (value >>> 32));
+        writeInt(buffer, (int) value);
+    }
+}
@@ -0,0 +1,708 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON decoder dedicated to CatalogueItem, the counterpart of CatalogueItemEncoder.
+ *
+ * Field names are matched against precomputed bytes directly in the DataBuffer, and numbers and timestamps are
+ * parsed from the buffer without creating a token String. Only string field values are materialised.
+ *
+ * Behaves like the default Jackson setup for the documents clients send today: unknown properties are ignored,
+ * Instant values are accepted as epoch seconds or ISO-8601 strings, and null for a @NonNull field is rejected.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueItemDecoder implements Decoder<CatalogueItem> {
+
+    private static final byte[] ID = bytes("id");
+    private static final byte[] NAME = bytes("name");
+    private static final byte[] DESCRIPTION = bytes("description");
+    private static final byte[] CATEGORY = bytes("category");
+    private static final byte[] PRICE = bytes("price");
+    private static final byte[] INVENTORY = bytes("inventory");
+    private static final byte[] CREATED_ON = bytes("createdOn");
+    private static final byte[] UPDATED_ON = bytes("updatedOn");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private int maxInMemorySize = 256 * 1024;
+
+    public void setMaxInMemorySize(int byteCount) {
+        this.maxInMemorySize = byteCount;
+    }
+
+    public int getMaxInMemorySize() {
+        return this.maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        if (CatalogueItem.class != elementType.toClass()) {
+            return false;
+        }
+        if (mimeType == null) {
+            return true;
+        }
+        if (mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return false;
+        }
+        return CatalogueItemEncoder.MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return CatalogueItemEncoder.MIME_TYPES;
+    }
+
+    /**
+     * Accepts either a JSON array of items or a single item.
+     */
+    @Override
+    public Flux<CatalogueItem> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+        MimeType mimeType, Map<String, Object> hints) {
+
+        return DataBufferUtils.join(inputStream, this.maxInMemorySize)
+            .flatMapIterable(buffer -> {
+                try {
+                    return new Parser(buffer).readItems();
+                }
+                finally {
+                    DataBufferUtils.release(buffer);
+                }
+            });
+    }
+
+    @Override
+    public Mono<CatalogueItem> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+        MimeType mimeType, Map<String, Object> hints) {
+
+        return DataBufferUtils.join(inputStream, this.maxInMemorySize)
+            .map(buffer -> decode(buffer, elementType, mimeType, hints));
+    }
+
+    @Override
+    public CatalogueItem decode(DataBuffer buffer, ResolvableType targetType,
+        MimeType mimeType, Map<String, Object> hints) throws DecodingException {
+
+        try {
+            return new Parser(buffer).readItem();
+        }
+        finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Single use cursor over the readable bytes of a buffer.
+     *
+     * Reads through a ByteBuffer view with absolute indexes, DefaultDataBuffer.getByte boxes the index for its
+     * bounds check message and allocates on every byte past 127.
+     */
+    private static final class Parser {
+
+        private final ByteBuffer buffer;
+        private final int end;
+        private int position;
+
+        private Parser(DataBuffer buffer) {
+            this.buffer = buffer.asByteBuffer();
+            this.position = this.buffer.position();
+            this.end = this.buffer.limit();
+        }
+
+        List<CatalogueItem> readItems() {
+            skipWhitespace();
+            List<CatalogueItem> items = new ArrayList<>();
+            if (peek() != '[') {
+                items.add(readObject());
+                return items;
+            }
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                return items;
+            }
+            while (true) {
+                skipWhitespace();
+                items.add(readObject());
+                skipWhitespace();
+                byte next = next();
+                if (next == ']') {
+                    return items;
+                }
+                if (next != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+        }
+
+        CatalogueItem readItem() {
+            skipWhitespace();
+            return readObject();
+        }
+
+        private CatalogueItem readObject() {
+            expect('{');
+            CatalogueItem item = new CatalogueItem();
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return item;
+            }
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                int nameStart = position;
+                int nameEnd = skipStringBody();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                readField(item, nameStart, nameEnd);
+                skipWhitespace();
+                byte next = next();
+                if (next == '}') {
+                    return item;
+                }
+                if (next != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private void readField(CatalogueItem item, int nameStart, int nameEnd) {
+            try {
+                if (nameEquals(ID, nameStart, nameEnd)) {
+                    item.setId(readLong());
+                }
+                else if (nameEquals(NAME, nameStart, nameEnd)) {
+                    item.setName(readString());
+                }
+                else if (nameEquals(DESCRIPTION, nameStart, nameEnd)) {
+                    item.setDescription(readString());
+                }
+                else if (nameEquals(CATEGORY, nameStart, nameEnd)) {
+                    item.setCategory(readString());
+                }
+                else if (nameEquals(PRICE, nameStart, nameEnd)) {
+                    item.setPrice(readDouble());
+                }
+                else if (nameEquals(INVENTORY, nameStart, nameEnd)) {
+                    Long inventory = readLong();
+                    if (inventory != null && (inventory < Integer.MIN_VALUE || inventory > Integer.MAX_VALUE)) {
+                        throw error("Inventory out of range");
+                    }
+                    item.setInventory(inventory == null ? null : inventory.intValue());
+                }
+                else if (nameEquals(CREATED_ON, nameStart, nameEnd)) {
+                    item.setCreatedOn(readInstant());
+                }
+                else if (nameEquals(UPDATED_ON, nameStart, nameEnd)) {
+                    item.setUpdatedOn(readInstant());
+                }
+                else {
+                    skipValue();
+                }
+            }
+            catch (NullPointerException ex) {
+                // Lombok @NonNull setters reject null the same way they do when Jackson calls them
+                throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+            }
+        }
+
+        private boolean nameEquals(byte[] name, int start, int nameEnd) {
+            if (nameEnd - start != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(start + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Long readLong() {
+            byte first = peek();
+            if (first == 'n') {
+                expectLiteral(NULL);
+                return null;
+            }
+            if (first == '"') {
+                String text = readString();
+                try {
+                    return text.isEmpty() ? null : Long.valueOf(text.trim());
+                }
+                catch (NumberFormatException ex) {
+                    throw error("Invalid integer value");
+                }
+            }
+            int start = position;
+            boolean negative = false;
+            if (peek() == '-') {
+                negative = true;
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < end && isDigit(buffer.get(position))) {
+                value = value * 10 + (buffer.get(position++) - '0');
+                digits++;
+            }
+            if (digits == 0) {
+                throw error("Invalid integer value");
+            }
+            if (position < end && isFractionOrExponent(buffer.get(position))) {
+                // Floating point value for an integer field is truncated, like Jackson's ACCEPT_FLOAT_AS_INT
+                position = start;
+                double parsed = readNumberToken();
+                // 2^63 is the first double past Long.MAX_VALUE, casting it would saturate rather than fail
+                if (parsed < -0x1p63 || parsed >= 0x1p63) {
+                    throw error("Integer value out of range");
+                }
+                return (long) parsed;
+            }
+            if (digits > 18) {
+                // 19 digits may overflow the accumulated value, Long.parseLong rejects what does not fit
+                try {
+                    return Long.parseLong(ascii(start, position));
+                }
+                catch (NumberFormatException ex) {
+                    throw error("Integer value out of range");
+                }
+            }
+            return negative ? -value : value;
+        }
+
+        private Double readDouble() {
+            byte first = peek();
+            if (first == 'n') {
+                expectLiteral(NULL);
+                return null;
+            }
+            if (first == '"') {
+                String text = readString();
+                try {
+                    return text.isEmpty() ? null : Double.valueOf(text.trim());
+                }
+                catch (NumberFormatException ex) {
+                    throw error("Invalid floating point value");
+                }
+            }
+            return readNumberToken();
+        }
+
+        /**
+         * Integral values up to 2^53 are converted without going through a String.
+         */
+        private double readNumberToken() {
+            int start = position;
+            boolean integral = true;
+            while (position < end && isNumberByte(buffer.get(position))) {
+                integral &= !isFractionOrExponent(buffer.get(position));
+                position++;
+            }
+            int length = position - start;
+            if (length == 0) {
+                throw error("Invalid number");
+            }
+            if (integral && length < 16) {
+                boolean negative = buffer.get(start) == '-';
+                long value = 0;
+                for (int i = negative ? start + 1 : start; i < position; i++) {
+                    byte b = buffer.get(i);
+                    if (!isDigit(b)) {
+                        throw error("Invalid number");
+                    }
+                    value = value * 10 + (b - '0');
+                }
+                return negative ? -value : value;
+            }
+            try {
+                return Double.parseDouble(ascii(start, position));
+            }
+            catch (NumberFormatException ex) {
+                throw error("Invalid number");
+            }
+        }
+
+        /**
+         * Same forms jackson-datatype-jsr310 accepts for Instant: decimal epoch seconds or an ISO-8601 string.
+         */
+        private Instant readInstant() {
+            byte first = peek();
+            if (first == 'n') {
+                expectLiteral(NULL);
+                return null;
+            }
+            if (first == '"') {
+                Instant instant = readIsoInstant();
+                if (instant != null) {
+                    return instant;
+                }
+                String text = readString().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return Instant.parse(text);
+                }
+                catch (DateTimeParseException ex) {
+                    throw error("Invalid timestamp value");
+                }
+            }
+            boolean negative = false;
+            if (peek() == '-') {
+                negative = true;
+                position++;
+            }
+            long seconds = 0;
+            int digits = 0;
+            while (position < end && isDigit(buffer.get(position))) {
+                seconds = seconds * 10 + (buffer.get(position++) - '0');
+                digits++;
+            }
+            if (digits == 0 || digits > 18) {
+                throw error("Invalid timestamp value");
+            }
+            long nanos = 0;
+            if (position < end && buffer.get(position) == '.') {
+                position++;
+                int scale = 100_000_000;
+                while (position < end && isDigit(buffer.get(position))) {
+                    nanos += (buffer.get(position++) - '0') * (long) scale;
+                    scale /= 10;
+                }
+            }
+            if (position < end && isNumberByte(buffer.get(position))) {
+                throw error("Invalid timestamp value");
+            }
+            // Matches Jackson's DecimalUtils, the fraction keeps the sign of the seconds
+            return negative ? Instant.ofEpochSecond(-seconds, -nanos) : Instant.ofEpochSecond(seconds, nanos);
+        }
+
+        /**
+         * Parses the uuuu-MM-ddTHH:mm:ss[.fffffffff]Z form CatalogueItemEncoder and Jackson write straight from the
+         * buffer. Returns null and leaves the position untouched for anything else, which Instant.parse then handles.
+         */
+        private Instant readIsoInstant() {
+            int p = position + 1;
+            if (end - p < 21 || buffer.get(p + 4) != '-' || buffer.get(p + 7) != '-'
+                || buffer.get(p + 10) != 'T' || buffer.get(p + 13) != ':' || buffer.get(p + 16) != ':') {
+                return null;
+            }
+            int year = digits(p, 4);
+            int month = digits(p + 5, 2);
+            int day = digits(p + 8, 2);
+            int hour = digits(p + 11, 2);
+            int minute = digits(p + 14, 2);
+            int second = digits(p + 17, 2);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59
+                || day > (month == 2 && Year.isLeap(year) ? 29 : DAYS_IN_MONTH[month - 1])) {
+                return null;
+            }
+            p += 19;
+            int nanos = 0;
+            if (p < end && buffer.get(p) == '.') {
+                int scale = 100_000_000;
+                int start = ++p;
+                while (p < end && p - start < 9 && isDigit(buffer.get(p))) {
+                    nanos += (buffer.get(p++) - '0') * scale;
+                    scale /= 10;
+                }
+                if (p == start) {
+                    return null;
+                }
+            }
+            if (end - p < 2 || buffer.get(p) != 'Z' || buffer.get(p + 1) != '"') {
+                return null;
+            }
+            position = p + 2;
+
+            // Days since epoch of a civil date, see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+            int y = month <= 2 ? year - 1 : year;
+            int era = Math.floorDiv(y, 400);
+            int yearOfEra = y - era * 400;
+            int dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1;
+            int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+            long days = era * 146_097L + dayOfEra - 719_468;
+            return Instant.ofEpochSecond(days * 86_400 + hour * 3_600 + minute * 60 + second, nanos);
+        }
+
+        /**
+         * Value of count ASCII digits starting at index, -1 if any of them is not a digit.
+         */
+        private int digits(int index, int count) {
+            int value = 0;
+            for (int i = index; i < index + count; i++) {
+                byte b = buffer.get(i);
+                if (!isDigit(b)) {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        /**
+         * Reads a string value, numbers and booleans are coerced to their text as Jackson does.
+         */
+        private String readString() {
+            byte first = peek();
+            if (first == 'n') {
+                expectLiteral(NULL);
+                return null;
+            }
+            if (first != '"') {
+                int start = position;
+                if (first == 't' || first == 'f') {
+                    expectLiteral(first == 't' ? TRUE : FALSE);
+                }
+                else {
+                    readNumberToken();
+                }
+                return ascii(start, position);
+            }
+            position++;
+            int start = position;
+            int stop = skipStringBody();
+            position = start;
+
+            // Decoded chars never outnumber the encoded bytes
+            char[] chars = new char[stop - start];
+            int count = 0;
+            while (true) {
+                byte b = next();
+                if (position > stop) {
+                    return new String(chars, 0, count);
+                }
+                if (b == '\\') {
+                    count = readEscape(chars, count);
+                }
+                else if (b >= 0) {
+                    if (b < 0x20) {
+                        throw error("Illegal control character in string");
+                    }
+                    chars[count++] = (char) b;
+                }
+                else {
+                    count = readMultiByte(chars, count, b);
+                }
+            }
+        }
+
+        private int readEscape(char[] chars, int count) {
+            byte escaped = next();
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    chars[count++] = (char) escaped;
+                    break;
+                case 'b':
+                    chars[count++] = '\b';
+                    break;
+                case 'f':
+                    chars[count++] = '\f';
+                    break;
+                case 'n':
+                    chars[count++] = '\n';
+                    break;
+                case 'r':
+                    chars[count++] = '\r';
+                    break;
+                case 't':
+                    chars[count++] = '\t';
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw error("Invalid unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    chars[count++] = (char) value;
+                    break;
+                default:
+                    throw error("Invalid escape sequence");
+            }
+            return count;
+        }
+
+        private int readMultiByte(char[] chars, int count, byte first) {
+            int codePoint;
+            int continuation;
+            if ((first & 0xE0) == 0xC0) {
+                codePoint = first & 0x1F;
+                continuation = 1;
+            }
+            else if ((first & 0xF0) == 0xE0) {
+                codePoint = first & 0x0F;
+                continuation = 2;
+            }
+            else if ((first & 0xF8) == 0xF0) {
+                codePoint = first & 0x07;
+                continuation = 3;
+            }
+            else {
+                throw error("Invalid UTF-8 start byte");
+            }
+            for (int i = 0; i < continuation; i++) {
+                byte b = next();
+                if ((b & 0xC0) != 0x80) {
+                    throw error("Invalid UTF-8 continuation byte");
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+            }
+            if (!Character.isValidCodePoint(codePoint)) {
+                throw error("Invalid UTF-8 code point");
+            }
+            return count + Character.toChars(codePoint, chars, count);
+        }
+
+        /**
+         * Moves past the body of a string whose opening quote was consumed, returns the end of its content.
+         */
+        private int skipStringBody() {
+            while (true) {
+                byte b = next();
+                if (b == '"') {
+                    return position - 1;
+                }
+                if (b == '\\') {
+                    next();
+                }
+            }
+        }
+
+        private void skipValue() {
+            byte first = peek();
+            switch (first) {
+                case '"':
+                    position++;
+                    skipStringBody();
+                    break;
+                case '{':
+                case '[':
+                    skipContainer();
+                    break;
+                case 't':
+                    expectLiteral(TRUE);
+                    break;
+                case 'f':
+                    expectLiteral(FALSE);
+                    break;
+                case 'n':
+                    expectLiteral(NULL);
+                    break;
+                default:
+                    readNumberToken();
+            }
+        }
+
+        private void skipContainer() {
+            int depth = 0;
+            do {
+                byte b = next();
+                if (b == '"') {
+                    skipStringBody();
+                }
+                else if (b == '{' || b == '[') {
+                    depth++;
+                }
+                else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            }
+            while (depth > 0);
+        }
+
+        private void expectLiteral(byte[] literal) {
+            for (byte b : literal) {
+                if (next() != b) {
+                    throw error("Unexpected token");
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < end) {
+                byte b = buffer.get(position);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private byte peek() {
+            if (position >= end) {
+                throw error("Unexpected end of input");
+            }
+            return buffer.get(position);
+        }
+
+        private byte next() {
+            byte b = peek();
+            position++;
+            return b;
+        }
+
+        private String ascii(int start, int stop) {
+            char[] chars = new char[stop - start];
+            for (int i = start; i < stop; i++) {
+                chars[i - start] = (char) buffer.get(i);
+            }
+            return new String(chars);
+        }
+
+        private DecodingException error(String message) {
+            return new DecodingException(String.format("JSON decoding error: %s at offset %d",
+                message, position - buffer.position()));
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private static boolean isFractionOrExponent(byte b) {
+            return b == '.' || b == 'e' || b == 'E';
+        }
+
+        private static boolean isNumberByte(byte b) {
+            return isDigit(b) || isFractionOrExponent(b) || b == '-' || b == '+';
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON encoder dedicated to CatalogueItem.
+ *
+ * Fields are written straight into the (pooled, when running on Netty) DataBuffer using precomputed field name
+ * bytes, so no intermediate String, JsonGenerator or tree is created per item. The output is the same as the
+ * Jackson mapper Spring Boot configures, including Instant values written as ISO-8601 strings (Boot turns off
+ * WRITE_DATES_AS_TIMESTAMPS), so JSON, SSE, CBOR and Smile responses all carry the same date format.
+ * Doubles still go through Double.toString, which is also what Jackson does.
+ *
+ * A Flux is written as a JSON array one buffer per item, or as newline delimited JSON for streaming media types,
+ * so a list is never collected in memory before being written.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueItemEncoder implements HttpMessageEncoder<CatalogueItem> {
+
+    static final List<MimeType> MIME_TYPES = List.of(
+        MediaType.APPLICATION_JSON,
+        new MediaType("application", "*+json"),
+        MediaType.APPLICATION_NDJSON,
+        MediaType.APPLICATION_STREAM_JSON);
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(
+        MediaType.APPLICATION_NDJSON,
+        MediaType.APPLICATION_STREAM_JSON);
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long MIN_FOUR_DIGIT_YEAR_SECOND = Instant.parse("0000-01-01T00:00:00Z").getEpochSecond();
+    private static final long MAX_FOUR_DIGIT_YEAR_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    private static final byte[] ID = bytes("{\"id\":");
+    private static final byte[] NAME = bytes(",\"name\":");
+    private static final byte[] DESCRIPTION = bytes(",\"description\":");
+    private static final byte[] CATEGORY = bytes(",\"category\":");
+    private static final byte[] PRICE = bytes(",\"price\":");
+    private static final byte[] INVENTORY = bytes(",\"inventory\":");
+    private static final byte[] CREATED_ON = bytes(",\"createdOn\":");
+    private static final byte[] UPDATED_ON = bytes(",\"updatedOn\":");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] LONG_MIN_VALUE = bytes(Long.toString(Long.MIN_VALUE));
+    private static final byte[] HEX = bytes("0123456789abcdef");
+
+    private static final byte START_ARRAY = '[';
+    private static final byte END_ARRAY = ']';
+    private static final byte END_OBJECT = '}';
+    private static final byte SEPARATOR = ',';
+    private static final byte NEW_LINE = '\n';
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return CatalogueItem.class == elementType.toClass() && supportsMimeType(mimeType);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends CatalogueItem> inputStream, DataBufferFactory bufferFactory,
+        ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                .map(item -> encodeValue(item, bufferFactory, elementType, mimeType, hints))
+                .flux();
+        }
+
+        if (isStreamingMediaType(mimeType)) {
+            return Flux.from(inputStream)
+                .map(item -> encode(item, bufferFactory, null, NEW_LINE));
+        }
+
+        return Flux.defer(() -> {
+            boolean[] first = {true};
+            return Flux.from(inputStream)
+                .map(item -> {
+                    byte prefix = first[0] ? START_ARRAY : SEPARATOR;
+                    first[0] = false;
+                    return encode(item, bufferFactory, prefix, null);
+                })
+                .concatWith(Mono.fromSupplier(() -> {
+                    DataBuffer buffer = bufferFactory.allocateBuffer(2);
+                    if (first[0]) {
+                        buffer.write(START_ARRAY);
+                    }
+                    return buffer.write(END_ARRAY);
+                }));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(CatalogueItem item, DataBufferFactory bufferFactory,
+        ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+
+        return encode(item, bufferFactory, null, null);
+    }
+
+    private DataBuffer encode(CatalogueItem item, DataBufferFactory bufferFactory, Byte prefix, Byte suffix) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_CAPACITY);
+        try {
+            if (prefix != null) {
+                buffer.write(prefix);
+            }
+            writeItem(buffer, item);
+            if (suffix != null) {
+                buffer.write(suffix);
+            }
+            return buffer;
+        }
+        catch (RuntimeException ex) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("Could not encode catalogue item: " + ex.getMessage(), ex);
+        }
+    }
+
+    static void writeItem(DataBuffer buffer, CatalogueItem item) {
+        buffer.write(ID);
+        writeLong(buffer, item.getId());
+        buffer.write(NAME);
+        writeString(buffer, item.getName());
+        buffer.write(DESCRIPTION);
+        writeString(buffer, item.getDescription());
+        buffer.write(CATEGORY);
+        writeString(buffer, item.getCategory());
+        buffer.write(PRICE);
+        writeDouble(buffer, item.getPrice());
+        buffer.write(INVENTORY);
+        writeLong(buffer, item.getInventory());
+        buffer.write(CREATED_ON);
+        writeInstant(buffer, item.getCreatedOn());
+        buffer.write(UPDATED_ON);
+        writeInstant(buffer, item.getUpdatedOn());
+        buffer.write(END_OBJECT);
+    }
+
+    private static void writeLong(DataBuffer buffer, Number number) {
+        if (number == null) {
+            buffer.write(NULL);
+            return;
+        }
+        writeDigits(buffer, number.longValue());
+    }
+
+    private static void writeDigits(DataBuffer buffer, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                buffer.write(LONG_MIN_VALUE);
+                return;
+            }
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * Same text as DateTimeFormatter.ISO_INSTANT, which Jackson uses when WRITE_DATES_AS_TIMESTAMPS is off: UTC
+     * date and time, fraction of second in groups of three digits only when not zero. Years outside 0 to 9999
+     * need a sign and go through the formatter.
+     */
+    private static void writeInstant(DataBuffer buffer, Instant instant) {
+        if (instant == null) {
+            buffer.write(NULL);
+            return;
+        }
+        long seconds = instant.getEpochSecond();
+        if (seconds < MIN_FOUR_DIGIT_YEAR_SECOND || seconds > MAX_FOUR_DIGIT_YEAR_SECOND) {
+            buffer.write((byte) '"');
+            buffer.write(DateTimeFormatter.ISO_INSTANT.format(instant), StandardCharsets.US_ASCII);
+            buffer.write((byte) '"');
+            return;
+        }
+
+        // Civil date from days since epoch, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long days = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+        long shifted = days + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        buffer.write((byte) '"');
+        writePadded(buffer, year, 1000);
+        buffer.write((byte) '-');
+        writePadded(buffer, month, 10);
+        buffer.write((byte) '-');
+        writePadded(buffer, day, 10);
+        buffer.write((byte) 'T');
+        writePadded(buffer, secondOfDay / 3600, 10);
+        buffer.write((byte) ':');
+        writePadded(buffer, secondOfDay / 60 % 60, 10);
+        buffer.write((byte) ':');
+        writePadded(buffer, secondOfDay % 60, 10);
+
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            buffer.write((byte) '.');
+            if (nanos % 1_000_000 == 0) {
+                writePadded(buffer, nanos / 1_000_000, 100);
+            }
+            else if (nanos % 1000 == 0) {
+                writePadded(buffer, nanos / 1000, 100_000);
+            }
+            else {
+                writePadded(buffer, nanos, 100_000_000);
+            }
+        }
+        buffer.write((byte) 'Z');
+        buffer.write((byte) '"');
+    }
+
+    /**
+     * Writes the value with leading zeros, the divisor being the weight of the first digit.
+     */
+    private static void writePadded(DataBuffer buffer, int value, int divisor) {
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * Non finite values are quoted, as Jackson does with QUOTE_NON_NUMERIC_NUMBERS.
+     */
+    private static void writeDouble(DataBuffer buffer, Double value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        String text = Double.toString(value);
+        boolean quoted = value.isNaN() || value.isInfinite();
+        if (quoted) {
+            buffer.write((byte) '"');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            buffer.write((byte) text.charAt(i));
+        }
+        if (quoted) {
+            buffer.write((byte) '"');
+        }
+    }
+
+    /**
+     * Writes the string as quoted, escaped UTF-8 without creating a byte array for it.
+     */
+    private static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAscii(buffer, c);
+            }
+            else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException("Unpaired surrogate in string value");
+            }
+            else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeAscii(DataBuffer buffer, char c) {
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+                break;
+            case '\n':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'n');
+                break;
+            case '\r':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'r');
+                break;
+            case '\t':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 't');
+                break;
+            case '\b':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'b');
+                break;
+            case '\f':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'f');
+                break;
+            default:
+                if (c < 0x20) {
+                    buffer.write((byte) '\\');
+                    buffer.write((byte) 'u');
+                    buffer.write((byte) '0');
+                    buffer.write((byte) '0');
+                    buffer.write(HEX[c >> 4]);
+                    buffer.write(HEX[c & 0xF]);
+                }
+                else {
+                    buffer.write((byte) c);
+                }
+        }
+    }
+
+    private boolean supportsMimeType(MimeType mimeType) {
+        if (mimeType == null) {
+            return true;
+        }
+        if (mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return false;
+        }
+        return MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType));
+    }
+
+    private boolean isStreamingMediaType(MimeType mimeType) {
+        return mimeType != null && STREAMING_MEDIA_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * CBOR encoder which also supports multi-value publishers.
+ *
+ * Jackson2CborEncoder only encodes single values and throws for a Flux. A Flux is written here as a CBOR array
+ * of indefinite length (RFC 8949, 3.2.2): the array head, each element encoded on its own as it arrives, then
+ * the break byte. Like the JSON array written by the JSON encoders, the list is never collected in memory.
+ * The array head goes out with the first element, so an error before it can still be answered with an error
+ * status.
+ *
+ * @author Jon Harvey
+ */
+public class StreamingCborEncoder extends Jackson2CborEncoder {
+
+    private static final byte START_INDEFINITE_ARRAY = (byte) 0x9F;
+    private static final byte BREAK = (byte) 0xFF;
+
+    public StreamingCborEncoder(ObjectMapper mapper) {
+        super(mapper, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+        ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                .flux();
+        }
+
+        return Flux.defer(() -> {
+            boolean[] first = {true};
+            return Flux.from(inputStream)
+                .concatMapIterable(value -> {
+                    DataBuffer buffer = encodeValue(value, bufferFactory, elementType, mimeType, hints);
+                    if (!first[0]) {
+                        return List.of(buffer);
+                    }
+                    first[0] = false;
+                    return List.of(bufferFactory.allocateBuffer(1).write(START_INDEFINITE_ARRAY), buffer);
+                })
+                .concatWith(Mono.fromSupplier(() -> {
+                    DataBuffer buffer = bufferFactory.allocateBuffer(2);
+                    if (first[0]) {
+                        buffer.write(START_INDEFINITE_ARRAY);
+                    }
+                    return buffer.write(BREAK);
+                }));
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.admission.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class to configure admission control of the API endpoints.
+ *
+ * Enabled with catalogue.admission.enabled=true.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalogue.admission", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfiguration {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionControlProperties properties,
+        ObjectProvider<MeterRegistry> meterRegistry) {
+
+        return new AdmissionControlFilter(
+            properties.getPathPrefix(),
+            properties.getGlobalLimit(),
+            () -> properties.newLimit(properties.getEndpoint()),
+            properties.getShares(),
+            properties.getRetryAfter(),
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+}
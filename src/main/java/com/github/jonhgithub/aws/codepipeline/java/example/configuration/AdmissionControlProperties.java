@@ -0,0 +1,79 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.admission.AdaptiveConcurrencyLimit;
+import com.github.jonhgithub.aws.codepipeline.java.example.admission.Priority;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Admission control settings, see AdmissionControlFilter.
+ *
+ * @author Jon Harvey
+ */
+@Data
+@ConfigurationProperties(prefix = "catalogue.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled;
+
+    /**
+     * Only requests below this path are admission controlled.
+     */
+    private String pathPrefix = "/api/";
+
+    /**
+     * Fixed limit shared by all endpoints, the priority shares apply to it.
+     */
+    private int globalLimit = 100;
+
+    /**
+     * Limit of each endpoint.
+     */
+    private Limit endpoint = new Limit(20, 2, 200);
+
+    /**
+     * Share of the global limit each priority class may fill.
+     */
+    private Map<Priority, Double> shares = defaultShares();
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Number of samples after which the latency without queueing is measured again.
+     */
+    private int probeInterval = 1000;
+
+    AdaptiveConcurrencyLimit newLimit(Limit limit) {
+        return new AdaptiveConcurrencyLimit(limit.getInitial(), limit.getMin(), limit.getMax(), probeInterval);
+    }
+
+    private static Map<Priority, Double> defaultShares() {
+        Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+        shares.put(Priority.CRITICAL, 1.0);
+        shares.put(Priority.NORMAL, 0.9);
+        shares.put(Priority.BULK, 0.5);
+        return shares;
+    }
+
+    @Data
+    public static class Limit {
+
+        private int initial;
+
+        private int min;
+
+        private int max;
+
+        public Limit() {
+        }
+
+        Limit(int initial, int min, int max) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
 
 import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.r2dbc.connectionfactory.init.CompositeDatabasePopulator;
 import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
-import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
 
 /**
  * Class to initialize any configurations or beans needed for application
@@ -22,19 +20,18 @@ public class ApplicationConfiguration {
      * Database cannot be initialized with schema or seed data by annotating the configuration class with
      * @EnableAutoConfiguration or by specifying initialization-mode config param.
      *
+     * Not needed when the columnar storage engine is used instead of H2/R2DBC.
+     *
      * @param connectionFactory
      * @return connectionFactoryInitializer
      */
     @Bean
+    @ConditionalOnProperty(prefix = "catalogue", name = "storage", havingValue = "r2dbc", matchIfMissing = true)
     public ConnectionFactoryInitializer databaseInitializer(ConnectionFactory connectionFactory) {
 
         ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
         initializer.setConnectionFactory(connectionFactory);
-
-        CompositeDatabasePopulator populator = new CompositeDatabasePopulator();
-        populator.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql")));
-        populator.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("schema/data.sql")));
-        initializer.setDatabasePopulator(populator);
+        initializer.setDatabasePopulator(CatalogueStorageSupport.databasePopulator());
 
         return initializer;
     }
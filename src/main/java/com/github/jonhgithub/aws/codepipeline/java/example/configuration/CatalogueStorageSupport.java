@@ -0,0 +1,101 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueSeedLoader;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.util.List;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.CompositeDatabasePopulator;
+import org.springframework.data.r2dbc.connectionfactory.init.DatabasePopulator;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+
+/**
+ * Connection pools, schema and seed data shared by the storage configurations, so each of them builds its
+ * databases the same way.
+ *
+ * @author Jon Harvey
+ */
+final class CatalogueStorageSupport {
+
+    private static final String SCHEMA = "schema/schema.sql";
+    private static final String DATA = "schema/data.sql";
+
+    private CatalogueStorageSupport() {
+    }
+
+    static ConnectionFactoryOptions options(String url, String username, String password) {
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(url);
+
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(username).to(builder::username);
+        map.from(password).to(builder::password);
+
+        return builder.buildOptions();
+    }
+
+    /**
+     * Pool configured like the one Spring Boot creates from spring.r2dbc.pool
+     *
+     * @param name
+     * @param options
+     * @param pool
+     * @return connectionPool
+     */
+    static ConnectionPool pool(String name, ConnectionFactoryOptions options, R2dbcProperties.Pool pool) {
+
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration
+            .builder(ConnectionFactories.get(options))
+            .name(name)
+            .initialSize(pool.getInitialSize())
+            .maxSize(pool.getMaxSize());
+
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(builder::validationQuery);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+
+        return new ConnectionPool(builder.build());
+    }
+
+    /**
+     * Schema of the catalogue database, without data
+     *
+     * @return databasePopulator
+     */
+    static ResourceDatabasePopulator schemaPopulator() {
+        return new ResourceDatabasePopulator(new ClassPathResource(SCHEMA));
+    }
+
+    /**
+     * Schema and seed data of the catalogue database
+     *
+     * @return databasePopulator
+     */
+    static DatabasePopulator databasePopulator() {
+
+        CompositeDatabasePopulator populator = new CompositeDatabasePopulator();
+        populator.addPopulators(schemaPopulator());
+        populator.addPopulators(new ResourceDatabasePopulator(new ClassPathResource(DATA)));
+
+        return populator;
+    }
+
+    /**
+     * Seed data for the storage engines which save it through their repository rather than running data.sql
+     *
+     * @return seedItems
+     */
+    static List<CatalogueItem> seedItems() {
+        return new CatalogueSeedLoader(new ClassPathResource(DATA)).load();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemBinaryDecoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemBinaryEncoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemDecoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemEncoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.StreamingCborEncoder;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Class to register the codecs used for catalogue payloads.
+ *
+ * Binary mappers are built from the same Jackson2ObjectMapperBuilder as the JSON mapper, so the
+ * spring.jackson properties in application.yml apply to CBOR and Smile as well.
+ *
+ * Custom codecs are ordered ahead of the default ones. JSON stays the answer to a request without an Accept
+ * header (or with *&#47;*) by being listed first in the produces of the controllers, and for responses without
+ * produces, such as the exception handlers, by a JSON encoder registered ahead of CBOR.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+public class CodecConfiguration {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Fixed layout binary CatalogueItem records, see CatalogueItemBinaryEncoder.
+     */
+    public static final String APPLICATION_CATALOGUE_ITEM_VALUE = CatalogueItemBinaryEncoder.MIME_TYPE_VALUE;
+
+    /**
+     * CatalogueItem JSON is handled by the dedicated codec on the hot path, any other JSON payload goes through
+     * the Jackson encoder registered next, ahead of the binary codecs. Custom codecs are consulted before the
+     * default ones. The binary CatalogueItem format has no Jackson equivalent, only CatalogueItem payloads can be
+     * exchanged in it.
+     *
+     * @param objectMapper
+     * @return codecCustomizer
+     */
+    @Bean
+    @Order(1)
+    public CodecCustomizer catalogueItemCodecCustomizer(ObjectMapper objectMapper) {
+
+        return configurer -> {
+            configurer.customCodecs().register(new CatalogueItemEncoder());
+            configurer.customCodecs().register(new CatalogueItemDecoder());
+            configurer.customCodecs().registerWithDefaultConfig(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new CatalogueItemBinaryEncoder());
+            configurer.customCodecs().register(new CatalogueItemBinaryDecoder());
+        };
+    }
+
+    /**
+     * CBOR is not registered by default in WebFlux, it is added as a custom codec. Smile is registered by
+     * default when jackson-dataformat-smile is present, it is only replaced to use the application mapper.
+     * Mime types must be passed explicitly, the mapper only constructors fall back to application/json.
+     *
+     * @param builder
+     * @return codecCustomizer
+     */
+    @Bean
+    @Order(2)
+    public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+
+        return configurer -> {
+            configurer.customCodecs().register(new StreamingCborEncoder(builder.factory(new CBORFactory()).build()));
+            configurer.customCodecs().register(new Jackson2CborDecoder(builder.factory(new CBORFactory()).build(), MediaType.APPLICATION_CBOR));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(builder.factory(new SmileFactory()).build(), APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(builder.factory(new SmileFactory()).build(), APPLICATION_SMILE));
+        };
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar.ColumnarCatalogueRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class to configure the in memory columnar storage engine in place of H2/R2DBC.
+ *
+ * Enabled with catalogue.storage=columnar. The columnar profile sets it and also excludes the R2DBC
+ * auto-configuration, so no ConnectionFactory or R2DBC repository is created.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalogue", name = "storage", havingValue = "columnar")
+public class ColumnarStorageConfiguration {
+
+    /**
+     * Seeded from schema/data.sql, the same data the H2 database is initialized with.
+     *
+     * @return catalogueRepository
+     */
+    @Bean
+    public ColumnarCatalogueRepository catalogueRepository() {
+
+        ColumnarCatalogueRepository repository = new ColumnarCatalogueRepository();
+        repository.saveAll(CatalogueStorageSupport.seedItems()).blockLast();
+
+        return repository;
+    }
+
+}
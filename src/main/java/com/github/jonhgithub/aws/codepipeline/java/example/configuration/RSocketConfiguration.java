@@ -0,0 +1,92 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemDecoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemEncoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.validation.CatalogueItemValidator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.rsocket.RSocketMessageHandlerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.rsocket.context.RSocketServerBootstrap;
+import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
+import org.springframework.boot.rsocket.netty.NettyRSocketServerFactory;
+import org.springframework.boot.rsocket.server.RSocketServer;
+import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+/**
+ * Class to configure the RSocket transports of the catalogue operations.
+ *
+ * The WebSocket transport is set up by Spring Boot on the WebFlux server (spring.rsocket.server.mapping-path).
+ * Spring Boot only starts one RSocket server, so the TCP server for internal clients is started here, with
+ * catalogue.rsocket.tcp.enabled=true. Both transports share the same message handler.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@EnableConfigurationProperties(RSocketTcpProperties.class)
+public class RSocketConfiguration {
+
+    /**
+     * CatalogueItem JSON goes through the dedicated codec, placed right before the Jackson JSON codec so CBOR
+     * stays the default data mime type of RSocket requesters.
+     *
+     * @return rSocketStrategiesCustomizer
+     */
+    @Bean
+    public RSocketStrategiesCustomizer catalogueItemRSocketStrategiesCustomizer() {
+
+        return strategies -> strategies
+            .encoders(encoders -> encoders.add(indexOf(encoders, Jackson2JsonEncoder.class::isInstance),
+                new CatalogueItemEncoder()))
+            .decoders(decoders -> decoders.add(indexOf(decoders, Jackson2JsonDecoder.class::isInstance),
+                new CatalogueItemDecoder()));
+    }
+
+    /**
+     * Validate @Valid CatalogueItem payloads with the same validator as the REST endpoints.
+     *
+     * @param catalogueItemValidator
+     * @return rSocketMessageHandlerCustomizer
+     */
+    @Bean
+    public RSocketMessageHandlerCustomizer catalogueItemValidatorCustomizer(
+        CatalogueItemValidator catalogueItemValidator) {
+
+        return messageHandler -> messageHandler.setValidator(catalogueItemValidator);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "catalogue.rsocket.tcp", name = "enabled", havingValue = "true")
+    public RSocketServerBootstrap rSocketTcpServerBootstrap(RSocketTcpProperties properties,
+        RSocketMessageHandler messageHandler, ObjectProvider<ReactorResourceFactory> resourceFactory,
+        ObjectProvider<RSocketServerCustomizer> customizers) {
+
+        NettyRSocketServerFactory factory = new NettyRSocketServerFactory();
+        factory.setTransport(RSocketServer.Transport.TCP);
+        factory.setPort(properties.getPort());
+        factory.setAddress(properties.getAddress());
+        resourceFactory.ifAvailable(factory::setResourceFactory);
+        factory.setRSocketServerCustomizers(customizers.orderedStream().collect(Collectors.toList()));
+
+        return new RSocketServerBootstrap(factory, messageHandler.responder());
+    }
+
+    private static <T> int indexOf(List<T> codecs, Predicate<T> predicate) {
+        for (int i = 0; i < codecs.size(); i++) {
+            if (predicate.test(codecs.get(i))) {
+                return i;
+            }
+        }
+        return codecs.size();
+    }
+
+}
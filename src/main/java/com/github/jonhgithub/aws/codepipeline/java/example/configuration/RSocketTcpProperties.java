@@ -0,0 +1,25 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import java.net.InetAddress;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the RSocket TCP server. The WebSocket transport uses the spring.rsocket.server properties and
+ * is served by the WebFlux server.
+ *
+ * @author Jon Harvey
+ */
+@Data
+@ConfigurationProperties(prefix = "catalogue.rsocket.tcp")
+public class RSocketTcpProperties {
+
+    private boolean enabled;
+
+    /**
+     * Port of the TCP server, 0 for a random port.
+     */
+    private int port = 7000;
+
+    private InetAddress address;
+}
@@ -0,0 +1,61 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.datasource.ReadWriteRoutingConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+
+/**
+ * Class to configure read/write connection routing with a read replica.
+ *
+ * Enabled with catalogue.datasource.replica.enabled=true. The routing ConnectionFactory replaces the one
+ * Spring Boot would create, so repositories keep working unchanged and only @ReadReplica service methods are
+ * sent to the replica.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalogue.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfiguration {
+
+    @Bean
+    public ReadWriteRoutingConnectionFactory connectionFactory(R2dbcProperties primaryProperties,
+        ReadReplicaProperties replicaProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+
+        ConnectionFactoryOptions primaryOptions = CatalogueStorageSupport.options(primaryProperties.getUrl(),
+            primaryProperties.getUsername(), primaryProperties.getPassword());
+        ConnectionFactoryOptions replicaOptions = CatalogueStorageSupport.options(replicaProperties.getUrl(),
+            replicaProperties.getUsername(), replicaProperties.getPassword());
+
+        return new ReadWriteRoutingConnectionFactory(primaryOptions,
+            CatalogueStorageSupport.pool("primary", primaryOptions, primaryProperties.getPool()),
+            CatalogueStorageSupport.pool("replica", replicaOptions, replicaProperties.getPool()),
+            replicaProperties.getRetryInterval(), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * A real replica is populated by replication, a local H2 stand in has to be initialized like the primary.
+     *
+     * @param connectionFactory
+     * @return connectionFactoryInitializer
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "catalogue.datasource.replica", name = "initialize", havingValue = "true")
+    public ConnectionFactoryInitializer replicaDatabaseInitializer(ReadWriteRoutingConnectionFactory connectionFactory) {
+
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory.getReplica());
+        initializer.setDatabasePopulator(CatalogueStorageSupport.databasePopulator());
+
+        return initializer;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica settings. The primary keeps using the spring.r2dbc properties, including spring.r2dbc.pool,
+ * so the two pools are sized independently.
+ *
+ * @author Jon Harvey
+ */
+@Data
+@ConfigurationProperties(prefix = "catalogue.datasource.replica")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Run schema.sql and data.sql against the replica, only meant for a local H2 replica.
+     */
+    private boolean initialize;
+
+    /**
+     * How long reads stay on the primary after the replica failed to provide a connection.
+     */
+    private Duration retryInterval = Duration.ofSeconds(5);
+
+    private R2dbcProperties.Pool pool = new R2dbcProperties.Pool();
+}
@@ -0,0 +1,54 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.sharded.ShardedCatalogueRepository;
+import io.r2dbc.pool.ConnectionPool;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+
+/**
+ * Class to configure the sharded storage engine, CATALOGUE_ITEMS spread over several databases.
+ *
+ * Enabled with catalogue.storage=sharded. The sharded profile sets it with three local H2 shards and excludes
+ * the R2DBC auto-configuration, the shards have their own pools.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalogue", name = "storage", havingValue = "sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardedStorageConfiguration {
+
+    /**
+     * Seed data is inserted through the repository rather than with data.sql on every shard, so the items get
+     * ids of the sharded scheme.
+     *
+     * @param properties
+     * @return catalogueRepository
+     */
+    @Bean
+    public ShardedCatalogueRepository catalogueRepository(ShardingProperties properties) {
+        Assert.notEmpty(properties.getShards(), "catalogue.sharding.shards must list at least one shard");
+
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            pools.add(CatalogueStorageSupport.pool("shard-" + pools.size(),
+                CatalogueStorageSupport.options(shard.getUrl(), shard.getUsername(), shard.getPassword()),
+                properties.getPool()));
+        }
+        ShardedCatalogueRepository repository = new ShardedCatalogueRepository(pools);
+
+        if (properties.isInitialize()) {
+            Flux.fromIterable(pools).concatMap(CatalogueStorageSupport.schemaPopulator()::execute).blockLast();
+            repository.saveAll(CatalogueStorageSupport.seedItems()).blockLast();
+        }
+
+        return repository;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Shard databases of the sharded storage engine. The order of the shards is part of the id scheme and must
+ * not change once items are stored.
+ *
+ * @author Jon Harvey
+ */
+@Data
+@ConfigurationProperties(prefix = "catalogue.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Create the schema on every shard and spread the seed data over them, only meant for local H2 shards.
+     */
+    private boolean initialize;
+
+    /**
+     * Pool settings applied to each shard.
+     */
+    private R2dbcProperties.Pool pool = new R2dbcProperties.Pool();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.datasource.QueryRecordingConnectionFactory;
+import com.github.jonhgithub.aws.codepipeline.java.example.datasource.SlowQueryEndpoint;
+import com.github.jonhgithub.aws.codepipeline.java.example.datasource.SlowQueryLog;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+
+/**
+ * Class to configure the slow query log of the R2DBC storage engine.
+ *
+ * Enabled with catalogue.datasource.slow-query.enabled=true, only for the r2dbc storage engine. The
+ * DatabaseClient used by the repositories and the transaction manager replace the ones Spring Boot would
+ * create and share one recording ConnectionFactory. It is not a bean: the ConnectionFactory bean is left as is,
+ * so schema initialization and EXPLAIN statements are not recorded.
+ *
+ * @author Jon Harvey
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalogue.datasource.slow-query", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SlowQueryLogProperties.class)
+public class SlowQueryLogConfiguration {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SlowQueryLogProperties properties, ConnectionFactory connectionFactory) {
+
+        return new SlowQueryLog(properties.isExplain() ? connectionFactory : null, properties.getThreshold(),
+            properties.getTop(), properties.getExplainInterval());
+    }
+
+    @Bean
+    public DatabaseClient r2dbcDatabaseClient(ConnectionFactory connectionFactory, SlowQueryLog slowQueryLog) {
+
+        return DatabaseClient.builder()
+            .connectionFactory(new QueryRecordingConnectionFactory(connectionFactory, slowQueryLog))
+            .bindMarkers(DialectResolver.getDialect(connectionFactory).getBindMarkersFactory())
+            .build();
+    }
+
+    /**
+     * Transactions must be bound to the factory the DatabaseClient uses, or its statements would run outside
+     * of them.
+     *
+     * @param databaseClient
+     * @return transactionManager
+     */
+    @Bean
+    public ReactiveTransactionManager connectionFactoryTransactionManager(DatabaseClient databaseClient) {
+
+        return new R2dbcTransactionManager(databaseClient.getConnectionFactory());
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+}
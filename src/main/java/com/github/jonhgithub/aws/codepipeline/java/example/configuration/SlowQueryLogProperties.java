@@ -0,0 +1,37 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.configuration;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Slow query log settings, see SlowQueryLog.
+ *
+ * @author Jon Harvey
+ */
+@Data
+@ConfigurationProperties(prefix = "catalogue.datasource.slow-query")
+public class SlowQueryLogProperties {
+
+    private boolean enabled;
+
+    /**
+     * Statements taking longer, from execution until their first result, are logged.
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * Number of distinct statements kept for the slowqueries actuator endpoint.
+     */
+    private int top = 20;
+
+    /**
+     * Log slow statements with their EXPLAIN plan.
+     */
+    private boolean explain = true;
+
+    /**
+     * Minimum time between two plans of the same statement.
+     */
+    private Duration explainInterval = Duration.ofMinutes(1);
+}
@@ -1,17 +1,26 @@
 package com.github.jonhgithub.aws.codepipeline.java.example.controller;
 
+import com.github.jonhgithub.aws.codepipeline.java.example.configuration.CodecConfiguration;
 import com.github.jonhgithub.aws.codepipeline.java.example.exception.ResourceNotFoundException;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkDeleteRequest;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkResult;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkUpdateRequest;
 import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
 import com.github.jonhgithub.aws.codepipeline.java.example.model.ResourceIdentity;
 import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import com.github.jonhgithub.aws.codepipeline.java.example.validation.BulkRequestValidator;
+import com.github.jonhgithub.aws.codepipeline.java.example.validation.CatalogueItemValidator;
 import java.time.Duration;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -25,11 +34,22 @@ import reactor.core.publisher.Mono;
 /**
  * Controller class to handle Catalogue Item CRUD operations.
  *
+ * Responses are negotiated from the Accept header. JSON is listed first so it stays the default, and
+ * server to server consumers can ask for CBOR or Smile to avoid JSON parsing cost, or for the fixed layout
+ * application/x-catalogue-item records to avoid parsing altogether.
+ *
  * @author Jon Harvey
  */
 @Slf4j
 @RestController
-@RequestMapping("/api/v1")
+@RequestMapping(
+    path = "/api/v1",
+    produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE,
+        CodecConfiguration.APPLICATION_SMILE_VALUE,
+        CodecConfiguration.APPLICATION_CATALOGUE_ITEM_VALUE
+    })
 public class CatalogueController {
 
     static final String CREATE = "/";
@@ -38,11 +58,34 @@ public class CatalogueController {
     static final String GET_ITEM = "/{id}";
     static final String UPDATE = "/{id}";
     static final String DELETE = "/{id}";
-    
+    static final String BULK_UPDATE = "/bulk";
+    static final String BULK_DELETE = "/bulk/delete";
+
     private final CatalogueCrudService catalogueCrudService;
+    private final CatalogueItemValidator catalogueItemValidator;
+    private final BulkRequestValidator bulkRequestValidator;
 
-    public CatalogueController(CatalogueCrudService catalogueCrudService) {
+    public CatalogueController(CatalogueCrudService catalogueCrudService, CatalogueItemValidator catalogueItemValidator,
+        BulkRequestValidator bulkRequestValidator) {
         this.catalogueCrudService = catalogueCrudService;
+        this.catalogueItemValidator = catalogueItemValidator;
+        this.bulkRequestValidator = bulkRequestValidator;
+    }
+
+    /**
+     * Validate @Valid CatalogueItem request bodies with the straight-line validator instead of Bean Validation.
+     * Error messages are the same, see CatalogueItemValidator.
+     *
+     * @param binder
+     */
+    @InitBinder("catalogueItem")
+    public void initCatalogueItemBinder(WebDataBinder binder) {
+        binder.setValidator(catalogueItemValidator);
+    }
+
+    @InitBinder({"bulkUpdateRequest", "bulkDeleteRequest"})
+    public void initBulkRequestBinder(WebDataBinder binder) {
+        binder.setValidator(bulkRequestValidator);
     }
 
     /**
@@ -116,22 +159,42 @@ public class CatalogueController {
         catalogueCrudService.updateCatalogueItem(id, catalogueItem);
     }
 
+    /**
+     * Update Catalogue Items selected by ids or category, e.g. a price change
+     * @param bulkUpdateRequest
+     * @return number of updated items
+     */
+    @PatchMapping(BULK_UPDATE)
+    @ResponseStatus(value = HttpStatus.OK)
+    public Mono<BulkResult> updateCatalogueItems(@Valid @RequestBody BulkUpdateRequest bulkUpdateRequest) {
+
+        return catalogueCrudService.updateCatalogueItems(bulkUpdateRequest).map(BulkResult::new);
+    }
+
+    /**
+     * Delete Catalogue Items selected by ids or category, e.g. discontinued items
+     * @param bulkDeleteRequest
+     * @return number of deleted items
+     */
+    @PostMapping(BULK_DELETE)
+    @ResponseStatus(value = HttpStatus.OK)
+    public Mono<BulkResult> removeCatalogueItems(@Valid @RequestBody BulkDeleteRequest bulkDeleteRequest) {
+
+        return catalogueCrudService.deleteCatalogueItems(bulkDeleteRequest).map(BulkResult::new);
+    }
+
     /**
      * Delete Catalogue Item
      * @param id
+     * @return completes once the item is deleted
      * @throws ResourceNotFoundException
      */
     @DeleteMapping(DELETE)
     @ResponseStatus(value = HttpStatus.NO_CONTENT)
-    public void removeCatalogItem(@PathVariable(value = "id") Long id)
+    public Mono<Void> removeCatalogItem(@PathVariable(value = "id") Long id)
         throws ResourceNotFoundException {
 
-        Mono<CatalogueItem> catalogueItem = catalogueCrudService.getCatalogueItem(id);
-        catalogueItem.subscribe(
-            value -> {
-                catalogueCrudService.deleteCatalogueItem(value);
-            }
-        );
+        return catalogueCrudService.deleteCatalogueItem(id);
     }
 
 }
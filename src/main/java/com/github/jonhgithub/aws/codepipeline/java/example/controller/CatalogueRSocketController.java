@@ -0,0 +1,84 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.controller;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.exception.ResourceNotFoundException;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import javax.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller class to handle Catalogue Item operations over RSocket, for internal clients calling at high
+ * frequency. Served over TCP and over WebSocket, see RSocketConfiguration.
+ *
+ * Unlike the SSE stream of CatalogueController, the item stream follows the demand (request(n)) signalled
+ * by the client, so a slow consumer is never sent more than it asked for.
+ *
+ * @author Jon Harvey
+ */
+@Slf4j
+@Controller
+public class CatalogueRSocketController {
+
+    static final String GET_ITEM = "catalogue.item.{id}";
+    static final String GET_ITEMS = "catalogue.items";
+    static final String UPSERT_ITEMS = "catalogue.items.upsert";
+
+    private final CatalogueCrudService catalogueCrudService;
+
+    public CatalogueRSocketController(CatalogueCrudService catalogueCrudService) {
+        this.catalogueCrudService = catalogueCrudService;
+    }
+
+    /**
+     * Get Catalogue Item (request-response)
+     * @param id
+     * @return catalogueItem
+     * @throws ResourceNotFoundException
+     */
+    @MessageMapping(GET_ITEM)
+    public Mono<CatalogueItem> getCatalogueItem(@DestinationVariable("id") Long id)
+        throws ResourceNotFoundException {
+
+        return catalogueCrudService.getCatalogueItem(id);
+    }
+
+    /**
+     * Get Catalogue Items sorted by name (request-stream)
+     * @return catalogueItems
+     */
+    @MessageMapping(GET_ITEMS)
+    public Flux<CatalogueItem> getCatalogueItems() {
+        return catalogueCrudService.getCatalogueItems();
+    }
+
+    /**
+     * Create or update Catalogue Items (request-channel). Items without id are created, the others updated.
+     * @param catalogueItems
+     * @return id of each item, in the order received
+     */
+    @MessageMapping(UPSERT_ITEMS)
+    public Flux<Long> upsertCatalogueItems(@Valid Flux<CatalogueItem> catalogueItems) {
+        return catalogueCrudService.upsertCatalogueItems(catalogueItems);
+    }
+
+    /**
+     * Send request errors back to the requester, which receives them as ApplicationErrorException, without the
+     * stack trace logged for exceptions no handler claims.
+     * @param exception
+     * @return error for the requester
+     */
+    @MessageExceptionHandler({ResourceNotFoundException.class, MethodArgumentNotValidException.class})
+    public Mono<Void> onRequestError(Exception exception) {
+        log.error("RSocket request failed: {}", exception.getMessage());
+
+        return Mono.error(exception);
+    }
+
+}
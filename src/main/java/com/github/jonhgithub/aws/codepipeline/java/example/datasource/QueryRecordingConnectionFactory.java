@@ -0,0 +1,118 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import io.r2dbc.proxy.callback.ProxyConfig;
+import io.r2dbc.proxy.core.ConnectionInfo;
+import io.r2dbc.proxy.core.ValueStore;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.publisher.Mono;
+
+/**
+ * ConnectionFactory handing out r2dbc-proxy connections, so every statement executed on them is reported to
+ * the SlowQueryLog.
+ *
+ * Connections are wrapped here rather than with ProxyConnectionFactory, whose create() does not pass the
+ * Reactor context on to the delegate. ReadWriteRoutingConnectionFactory relies on that context to send
+ * @ReadReplica work to the replica.
+ *
+ * @author Jon Harvey
+ */
+public class QueryRecordingConnectionFactory implements ConnectionFactory {
+
+    private final ConnectionFactory delegate;
+    private final ProxyConfig proxyConfig;
+
+    public QueryRecordingConnectionFactory(ConnectionFactory delegate, SlowQueryLog slowQueryLog) {
+        this.delegate = delegate;
+        this.proxyConfig = ProxyConfig.builder()
+            .listener(new QueryRecordingListener(slowQueryLog))
+            .build();
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.from(delegate.create())
+            .map(connection -> proxyConfig.getProxyFactory().wrapConnection(connection, new RecordedConnectionInfo(
+                connection, proxyConfig.getConnectionIdManager().getId(connection))));
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    private static final class RecordedConnectionInfo implements ConnectionInfo {
+
+        private final Connection originalConnection;
+        private final String connectionId;
+        private final ValueStore valueStore = ValueStore.create();
+
+        private final AtomicInteger transactionCount = new AtomicInteger();
+        private final AtomicInteger commitCount = new AtomicInteger();
+        private final AtomicInteger rollbackCount = new AtomicInteger();
+
+        private volatile boolean closed;
+
+        private RecordedConnectionInfo(Connection originalConnection, String connectionId) {
+            this.originalConnection = originalConnection;
+            this.connectionId = connectionId;
+        }
+
+        @Override
+        public Connection getOriginalConnection() {
+            return originalConnection;
+        }
+
+        @Override
+        public String getConnectionId() {
+            return connectionId;
+        }
+
+        @Override
+        public void incrementTransactionCount() {
+            transactionCount.incrementAndGet();
+        }
+
+        @Override
+        public void incrementCommitCount() {
+            commitCount.incrementAndGet();
+        }
+
+        @Override
+        public void incrementRollbackCount() {
+            rollbackCount.incrementAndGet();
+        }
+
+        @Override
+        public int getTransactionCount() {
+            return transactionCount.get();
+        }
+
+        @Override
+        public int getCommitCount() {
+            return commitCount.get();
+        }
+
+        @Override
+        public int getRollbackCount() {
+            return rollbackCount.get();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void setClosed(boolean closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public ValueStore getValueStore() {
+            return valueStore;
+        }
+    }
+}
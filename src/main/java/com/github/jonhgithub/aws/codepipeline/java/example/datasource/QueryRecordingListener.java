@@ -0,0 +1,139 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.ConnectionInfo;
+import io.r2dbc.proxy.core.MethodExecutionInfo;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measures each statement and hands it to the SlowQueryLog.
+ *
+ * The time of the database runs from execution to the first result: the first row mapped, the update count, or
+ * the end of execute() for a result nobody reads. The time from there until the results are consumed depends on
+ * the application and is reported apart, as consumer wait.
+ *
+ * A connection runs one statement at a time, so the statement in progress is kept on the connection and is
+ * completed, its results consumed, when the next one starts or the connection is closed (released to the pool).
+ * Rows are counted as the results are mapped, or taken from the update count.
+ *
+ * @author Jon Harvey
+ */
+class QueryRecordingListener implements ProxyExecutionListener {
+
+    private static final String EXECUTION_KEY = QueryRecordingListener.class.getName() + ".EXECUTION";
+
+    private final SlowQueryLog slowQueryLog;
+
+    QueryRecordingListener(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(QueryExecutionInfo info) {
+        complete(info.getConnectionInfo());
+
+        List<QueryInfo> queries = info.getQueries();
+        String sql = queries.size() == 1
+            ? queries.get(0).getQuery()
+            : queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n"));
+        List<Bindings> bindings = queries.get(0).getBindingsList();
+
+        info.getConnectionInfo().getValueStore().put(EXECUTION_KEY, new Execution(sql, bindCount(queries),
+            bindings.isEmpty() ? null : bindings.get(0), System.nanoTime()));
+    }
+
+    @Override
+    public void afterQuery(QueryExecutionInfo info) {
+        if (!info.isSuccess()) {
+            complete(info.getConnectionInfo());
+            return;
+        }
+        Execution execution = execution(info.getConnectionInfo());
+        if (execution != null) {
+            execution.result();
+        }
+    }
+
+    @Override
+    public void eachQueryResult(QueryExecutionInfo info) {
+        Execution execution = execution(info.getConnectionInfo());
+        if (execution != null) {
+            execution.rows++;
+            execution.result();
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionInfo info) {
+        Class<?> type = info.getMethod().getDeclaringClass();
+        if (type == Result.class) {
+            Execution execution = execution(info.getConnectionInfo());
+            if (execution != null) {
+                // Result of map is the last mapped row, which may be a number as well
+                if ("getRowsUpdated".equals(info.getMethod().getName()) && info.getResult() instanceof Number) {
+                    execution.rows += ((Number) info.getResult()).longValue();
+                }
+                execution.result();
+            }
+        }
+        else if (type == Connection.class && "close".equals(info.getMethod().getName())) {
+            complete(info.getConnectionInfo());
+        }
+    }
+
+    private void complete(ConnectionInfo connectionInfo) {
+        Execution execution = (Execution) connectionInfo.getValueStore().remove(EXECUTION_KEY);
+        if (execution != null) {
+            long end = System.nanoTime();
+            long firstResult = execution.firstResult != 0 ? execution.firstResult : end;
+            slowQueryLog.record(execution.sql, execution.bindCount, execution.rows, firstResult - execution.start,
+                end - firstResult, execution.bindings);
+        }
+    }
+
+    private Execution execution(ConnectionInfo connectionInfo) {
+        return connectionInfo.getValueStore().get(EXECUTION_KEY, Execution.class);
+    }
+
+    private static int bindCount(List<QueryInfo> queries) {
+        int count = 0;
+        for (QueryInfo query : queries) {
+            for (Bindings bindings : query.getBindingsList()) {
+                count += bindings.getIndexBindings().size() + bindings.getNamedBindings().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Statement in progress. Signals of one statement are serialized, plain fields are enough.
+     */
+    private static final class Execution {
+
+        private final String sql;
+        private final int bindCount;
+        private final Bindings bindings;
+        private final long start;
+        private long firstResult;
+        private long rows;
+
+        private Execution(String sql, int bindCount, Bindings bindings, long start) {
+            this.sql = sql;
+            this.bindCount = bindCount;
+            this.bindings = bindings;
+            this.start = start;
+        }
+
+        private void result() {
+            if (firstResult == 0) {
+                firstResult = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read only service method returning Mono or Flux. When read replica routing is enabled, its
+ * repository calls acquire connections from the replica pool instead of the primary.
+ *
+ * @author Jon Harvey
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface ReadReplica {
+
+}
@@ -0,0 +1,33 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the read only routing key into the Reactor context of @ReadReplica methods. The key is read by
+ * ReadWriteRoutingConnectionFactory when the repository acquires a connection, and is ignored when routing
+ * is not enabled.
+ *
+ * @author Jon Harvey
+ */
+@Aspect
+@Component
+public class ReadReplicaAspect {
+
+    @Around("@annotation(com.github.jonhgithub.aws.codepipeline.java.example.datasource.ReadReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+
+        if (result instanceof Mono) {
+            return ((Mono<?>) result).contextWrite(ReadWriteRoutingConnectionFactory::readOnly);
+        }
+        if (result instanceof Flux) {
+            return ((Flux<?>) result).contextWrite(ReadWriteRoutingConnectionFactory::readOnly);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.r2dbc.OptionsCapableConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * ConnectionFactory sending read only work to a replica pool and everything else to the primary pool.
+ *
+ * Work is read only when the read only key is present in the Reactor context, see @ReadReplica. If a replica
+ * connection cannot be acquired the read falls back to the primary, and the replica is not tried again for
+ * the retry interval so reads do not pay the failed acquisition each time.
+ *
+ * Both pools publish acquisition latency and utilization metrics tagged with the pool name.
+ *
+ * The options are those of the primary, Spring Boot uses them to detect the database type.
+ *
+ * @author Jon Harvey
+ */
+@Slf4j
+public class ReadWriteRoutingConnectionFactory extends OptionsCapableConnectionFactory implements Closeable {
+
+    static final String READ_ONLY_KEY = ReadWriteRoutingConnectionFactory.class.getName() + ".READ_ONLY";
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ConnectionPool primary;
+    private final ConnectionPool replica;
+    private final Duration replicaRetryInterval;
+
+    private final Timer primaryAcquireTimer;
+    private final Timer replicaAcquireTimer;
+    private final Counter fallbackCounter;
+
+    private volatile long replicaRetryAt;
+
+    public ReadWriteRoutingConnectionFactory(ConnectionFactoryOptions primaryOptions, ConnectionPool primary,
+        ConnectionPool replica, Duration replicaRetryInterval, MeterRegistry meterRegistry) {
+
+        super(primaryOptions, primary);
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaRetryInterval = replicaRetryInterval;
+        this.replicaRetryAt = System.nanoTime();
+        this.primaryAcquireTimer = registerMetrics(PRIMARY, primary, meterRegistry);
+        this.replicaAcquireTimer = registerMetrics(REPLICA, replica, meterRegistry);
+        this.fallbackCounter = Counter.builder("catalogue.r2dbc.routing.fallback")
+            .description("Read only acquisitions served by the primary because the replica was unavailable")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Marks the work subscribed with this context as read only.
+     *
+     * @param context
+     * @return context with the read only key
+     */
+    public static Context readOnly(Context context) {
+        return context.put(READ_ONLY_KEY, Boolean.TRUE);
+    }
+
+    public ConnectionPool getPrimary() {
+        return primary;
+    }
+
+    public ConnectionPool getReplica() {
+        return replica;
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> {
+            if (!isReadOnly(context)) {
+                return acquire(primary, primaryAcquireTimer);
+            }
+            if (System.nanoTime() - replicaRetryAt < 0) {
+                fallbackCounter.increment();
+                return acquire(primary, primaryAcquireTimer);
+            }
+            return acquire(replica, replicaAcquireTimer)
+                .onErrorResume(ex -> {
+                    log.warn("Replica connection unavailable, routing reads to primary for {}: {}",
+                        replicaRetryInterval, ex.getMessage());
+                    replicaRetryAt = System.nanoTime() + replicaRetryInterval.toNanos();
+                    fallbackCounter.increment();
+                    return acquire(primary, primaryAcquireTimer);
+                });
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    @Override
+    public void close() {
+        replica.dispose();
+        primary.dispose();
+    }
+
+    private boolean isReadOnly(ContextView context) {
+        return context.getOrDefault(READ_ONLY_KEY, Boolean.FALSE);
+    }
+
+    private Mono<Connection> acquire(ConnectionPool pool, Timer timer) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return pool.create()
+                .doOnSuccess(connection -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Timer registerMetrics(String name, ConnectionPool pool, MeterRegistry meterRegistry) {
+        gauge("catalogue.r2dbc.pool.acquired", "Connections in use", name, pool, PoolMetrics::acquiredSize, meterRegistry);
+        gauge("catalogue.r2dbc.pool.idle", "Idle connections", name, pool, PoolMetrics::idleSize, meterRegistry);
+        gauge("catalogue.r2dbc.pool.pending", "Pending acquisitions", name, pool, PoolMetrics::pendingAcquireSize, meterRegistry);
+        gauge("catalogue.r2dbc.pool.max", "Maximum pool size", name, pool, PoolMetrics::getMaxAllocatedSize, meterRegistry);
+        gauge("catalogue.r2dbc.pool.utilization", "Connections in use over maximum pool size", name, pool,
+            metrics -> (double) metrics.acquiredSize() / Math.max(1, metrics.getMaxAllocatedSize()), meterRegistry);
+
+        return Timer.builder("catalogue.r2dbc.pool.acquire")
+            .description("Connection acquisition latency")
+            .tag("pool", name)
+            .register(meterRegistry);
+    }
+
+    private void gauge(String metric, String description, String name, ConnectionPool pool,
+        ToDoubleFunction<PoolMetrics> value, MeterRegistry meterRegistry) {
+
+        Gauge.builder(metric, pool, p -> p.getMetrics().map(value::applyAsDouble).orElse(Double.NaN))
+            .description(description)
+            .tag("pool", name)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Execution of a SQL statement kept by the SlowQueryLog.
+ *
+ * The plan is only captured for statements over the slow query threshold, and is filled in once the EXPLAIN
+ * issued for it completes.
+ *
+ * @author Jon Harvey
+ */
+@Data
+public class SlowQuery {
+
+    private final String sql;
+
+    /**
+     * Number of values bound to the statement.
+     */
+    private final int bindCount;
+
+    /**
+     * Rows returned by a query, or rows updated by an insert, update or delete.
+     */
+    private final long rows;
+
+    /**
+     * Time from execution until the database returned the first result, compared to the threshold.
+     */
+    private final Duration elapsed;
+
+    /**
+     * Time from the first result until the results were consumed, mostly spent by the application reading them.
+     */
+    private final Duration consumerWait;
+
+    private final Instant executedOn;
+
+    private volatile String plan;
+}
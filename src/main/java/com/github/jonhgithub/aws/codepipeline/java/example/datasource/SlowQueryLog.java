@@ -0,0 +1,215 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the slowest statements executed through QueryRecordingConnectionFactory and logs the ones over the
+ * threshold with their EXPLAIN plan.
+ *
+ * The top N holds the slowest execution of each distinct SQL text. Once it is full, statements faster than
+ * its fastest entry are dropped after a single volatile read, so recording costs nothing measurable on the
+ * fast path.
+ *
+ * Statements are ranked by the time of the database alone. The time the application then takes to consume the
+ * results is kept with them, but a slow consumer does not make a statement slow.
+ *
+ * EXPLAIN runs on the factory passed in, which is not recorded, with the values bound to the slow execution.
+ * A given SQL text is explained at most once per explain interval, so a latency spike does not double the
+ * load with plans for the same statement.
+ *
+ * @author Jon Harvey
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private static final Comparator<SlowQuery> SLOWEST_FIRST = Comparator.comparing(SlowQuery::getElapsed).reversed();
+
+    private final ConnectionFactory explainConnectionFactory;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final long explainIntervalNanos;
+
+    private final Map<String, SlowQuery> slowest = new HashMap<>();
+    private final Map<String, Long> explainedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Elapsed time a statement must exceed to enter the top N, 0 until it is full.
+     */
+    private volatile long floorNanos;
+
+    /**
+     * @param explainConnectionFactory factory used for EXPLAIN, null to log without plans
+     * @param threshold statements taking longer are logged
+     * @param capacity number of statements kept
+     * @param explainInterval minimum time between two plans of the same SQL text
+     */
+    public SlowQueryLog(ConnectionFactory explainConnectionFactory, Duration threshold, int capacity,
+        Duration explainInterval) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.explainConnectionFactory = explainConnectionFactory;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.explainIntervalNanos = explainInterval.toNanos();
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param sql
+     * @param bindCount number of bound values
+     * @param rows rows returned or updated
+     * @param elapsedNanos time from execution until the first result
+     * @param consumerWaitNanos time from the first result until the results were consumed
+     * @param bindings values bound to the statement, used for EXPLAIN, may be null
+     */
+    public void record(String sql, int bindCount, long rows, long elapsedNanos, long consumerWaitNanos,
+        Bindings bindings) {
+
+        if (log.isTraceEnabled()) {
+            log.trace("Executed in {} ms, consumed in {} ms more ({} binds, {} rows): {}", millis(elapsedNanos),
+                millis(consumerWaitNanos), bindCount, rows, sql);
+        }
+        boolean slow = elapsedNanos >= thresholdNanos;
+        if (!slow && elapsedNanos <= floorNanos) {
+            return;
+        }
+
+        SlowQuery query = new SlowQuery(sql, bindCount, rows, Duration.ofNanos(elapsedNanos),
+            Duration.ofNanos(consumerWaitNanos), Instant.now());
+        add(query);
+
+        if (!slow) {
+            return;
+        }
+        if (explainConnectionFactory == null || !isExplainable(sql) || !claimExplain(sql)) {
+            log.warn("Slow query, {} ms ({} binds, {} rows): {}", millis(elapsedNanos), bindCount, rows, sql);
+            return;
+        }
+        explain(sql, bindings).subscribe(
+            plan -> {
+                query.setPlan(plan);
+                log.warn("Slow query, {} ms ({} binds, {} rows): {}\nPlan: {}", millis(elapsedNanos), bindCount, rows,
+                    sql, plan);
+            },
+            ex -> log.warn("Slow query, {} ms ({} binds, {} rows): {}\nPlan unavailable: {}", millis(elapsedNanos),
+                bindCount, rows, sql, ex.getMessage()));
+    }
+
+    /**
+     * @return kept statements, slowest first
+     */
+    public synchronized List<SlowQuery> getSlowest() {
+        List<SlowQuery> queries = new ArrayList<>(slowest.values());
+        queries.sort(SLOWEST_FIRST);
+        return queries;
+    }
+
+    public synchronized void reset() {
+        slowest.clear();
+        explainedAt.clear();
+        floorNanos = 0;
+    }
+
+    private synchronized void add(SlowQuery query) {
+        SlowQuery existing = slowest.get(query.getSql());
+        if (existing != null && existing.getElapsed().compareTo(query.getElapsed()) >= 0) {
+            return;
+        }
+        slowest.put(query.getSql(), query);
+        if (slowest.size() > capacity) {
+            slowest.values().remove(fastest());
+        }
+        floorNanos = slowest.size() < capacity ? 0 : fastest().getElapsed().toNanos();
+    }
+
+    private SlowQuery fastest() {
+        return slowest.values().stream().min(Comparator.comparing(SlowQuery::getElapsed)).orElseThrow();
+    }
+
+    private boolean claimExplain(String sql) {
+        long now = System.nanoTime();
+        if (explainedAt.size() > capacity * 16) {
+            explainedAt.clear();
+        }
+        Long previous = explainedAt.get(sql);
+        if (previous != null && now - previous < explainIntervalNanos) {
+            return false;
+        }
+        return previous == null
+            ? explainedAt.putIfAbsent(sql, now) == null
+            : explainedAt.replace(sql, previous, now);
+    }
+
+    private Mono<String> explain(String sql, Bindings bindings) {
+        return Flux.usingWhen(
+                explainConnectionFactory.create(),
+                connection -> {
+                    Statement statement = connection.createStatement("EXPLAIN " + sql);
+                    if (bindings != null) {
+                        bind(statement, bindings);
+                    }
+                    return Flux.from(statement.execute())
+                        .concatMap(result -> result.map((row, metadata) -> String.valueOf(row.get(0))));
+                },
+                Connection::close)
+            .collect(Collectors.joining("\n"));
+    }
+
+    private static void bind(Statement statement, Bindings bindings) {
+        for (Binding binding : bindings.getIndexBindings()) {
+            int index = (Integer) binding.getKey();
+            BoundValue value = binding.getBoundValue();
+            if (value.isNull()) {
+                statement.bindNull(index, value.getNullType());
+            }
+            else {
+                statement.bind(index, value.getValue());
+            }
+        }
+        for (Binding binding : bindings.getNamedBindings()) {
+            String name = (String) binding.getKey();
+            BoundValue value = binding.getBoundValue();
+            if (value.isNull()) {
+                statement.bindNull(name, value.getNullType());
+            }
+            else {
+                statement.bind(name, value.getValue());
+            }
+        }
+    }
+
+    /**
+     * Only statements which can be explained without side effects, not DDL or procedure calls.
+     */
+    private static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return statement.startsWith("SELECT") || statement.startsWith("INSERT") || statement.startsWith("UPDATE")
+            || statement.startsWith("DELETE") || statement.startsWith("MERGE");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.model;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Deletes the items with the given ids, or all items of the given category.
+ */
+@Data
+@NoArgsConstructor
+public class BulkDeleteRequest {
+
+    private List<Long> ids;
+
+    private String category;
+}
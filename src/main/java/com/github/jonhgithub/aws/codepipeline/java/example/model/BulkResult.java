@@ -0,0 +1,13 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+
+    private long affected;
+}
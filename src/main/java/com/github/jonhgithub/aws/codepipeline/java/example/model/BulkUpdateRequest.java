@@ -0,0 +1,19 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.model;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Patch applied to the items with the given ids, or to all items of the given category.
+ */
+@Data
+@NoArgsConstructor
+public class BulkUpdateRequest {
+
+    private List<Long> ids;
+
+    private String category;
+
+    private CatalogueItemPatch patch;
+}
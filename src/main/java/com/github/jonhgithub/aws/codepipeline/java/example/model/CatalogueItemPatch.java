@@ -0,0 +1,18 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fields changed by a bulk update, null fields are left unchanged.
+ */
+@Data
+@NoArgsConstructor
+public class CatalogueItemPatch {
+
+    private Double price;
+
+    private Integer inventory;
+
+    private String category;
+}
@@ -15,4 +15,21 @@ public enum Category {
     OFFICE("Office");
 
     @Getter private String value;
+
+    /**
+     * Categories are validated case insensitively but stored and matched exactly as their value.
+     *
+     * @param category category in any casing
+     * @return value of the matching constant, or category itself when none matches
+     */
+    public static String canonicalValue(String category) {
+        if (category != null) {
+            for (Category constant : values()) {
+                if (constant.name().equalsIgnoreCase(category) || constant.value.equalsIgnoreCase(category)) {
+                    return constant.value;
+                }
+            }
+        }
+        return category;
+    }
 }
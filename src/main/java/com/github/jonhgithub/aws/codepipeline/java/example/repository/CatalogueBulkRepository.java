@@ -0,0 +1,50 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Set based updates and deletes of CatalogueRepository. Every method returns the number of affected items.
+ *
+ * Id sets are applied with one statement per chunk of CHUNK_SIZE ids, a category with one statement. Chunks
+ * are not applied atomically, a failure leaves the chunks already applied in place.
+ *
+ * @author Jon Harvey
+ */
+public interface CatalogueBulkRepository {
+
+    int CHUNK_SIZE = 1000;
+
+    Mono<Long> patchAllById(Collection<Long> ids, CatalogueItemPatch patch, Instant updatedOn);
+
+    Mono<Long> patchAllByCategory(String category, CatalogueItemPatch patch, Instant updatedOn);
+
+    Mono<Long> removeAllById(Collection<Long> ids);
+
+    Mono<Long> removeAllByCategory(String category);
+
+    /**
+     * @param ids
+     * @return distinct ids split in chunks of at most CHUNK_SIZE
+     */
+    static List<List<Long>> chunks(Collection<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), CHUNK_SIZE));
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (chunk.size() == CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+            chunk.add(id);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC implementation of CatalogueBulkRepository, picked up by Spring Data as a fragment of
+ * CatalogueRepository. Each chunk is a single UPDATE or DELETE ... WHERE ID IN (...) statement.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueBulkRepositoryImpl implements CatalogueBulkRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    public CatalogueBulkRepositoryImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Mono<Long> patchAllById(Collection<Long> ids, CatalogueItemPatch patch, Instant updatedOn) {
+        return patchAllById(template, ids, patch, updatedOn);
+    }
+
+    @Override
+    public Mono<Long> patchAllByCategory(String category, CatalogueItemPatch patch, Instant updatedOn) {
+        return template.update(byCategory(category), update(patch, updatedOn), CatalogueItem.class)
+            .map(Integer::longValue);
+    }
+
+    @Override
+    public Mono<Long> removeAllById(Collection<Long> ids) {
+        return removeAllById(template, ids);
+    }
+
+    @Override
+    public Mono<Long> removeAllByCategory(String category) {
+        return template.delete(byCategory(category), CatalogueItem.class).map(Integer::longValue);
+    }
+
+    /**
+     * Chunked update through any template, also used for the shards of the sharded storage engine.
+     *
+     * @param template
+     * @param ids
+     * @param patch
+     * @param updatedOn
+     * @return affected count
+     */
+    public static Mono<Long> patchAllById(R2dbcEntityTemplate template, Collection<Long> ids, CatalogueItemPatch patch,
+        Instant updatedOn) {
+
+        Update update = update(patch, updatedOn);
+        return Flux.fromIterable(CatalogueBulkRepository.chunks(ids))
+            .concatMap(chunk -> template.update(byIds(chunk), update, CatalogueItem.class))
+            .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Chunked delete through any template, also used for the shards of the sharded storage engine.
+     *
+     * @param template
+     * @param ids
+     * @return affected count
+     */
+    public static Mono<Long> removeAllById(R2dbcEntityTemplate template, Collection<Long> ids) {
+        return Flux.fromIterable(CatalogueBulkRepository.chunks(ids))
+            .concatMap(chunk -> template.delete(byIds(chunk), CatalogueItem.class))
+            .reduce(0L, Long::sum);
+    }
+
+    public static Query byCategory(String category) {
+        return Query.query(Criteria.where("category").is(category));
+    }
+
+    public static Update update(CatalogueItemPatch patch, Instant updatedOn) {
+        Update update = Update.update("updatedOn", updatedOn);
+        if (patch.getPrice() != null) {
+            update = update.set("price", patch.getPrice());
+        }
+        if (patch.getInventory() != null) {
+            update = update.set("inventory", patch.getInventory());
+        }
+        if (patch.getCategory() != null) {
+            update = update.set("category", patch.getCategory());
+        }
+        return update;
+    }
+
+    private static Query byIds(List<Long> ids) {
+        return Query.query(Criteria.where("id").in(ids));
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.core.io.Resource;
+
+/**
+ * Reads seed items from the INSERT statements of schema/data.sql, so the columnar and sharded storage engines
+ * start with the same catalogue as the H2 database, saved through their repositories.
+ *
+ * Only single row "INSERT INTO CATALOGUE_ITEMS(columns) VALUES(literals);" statements are supported, which is
+ * the form data.sql uses.
+ *
+ * @author Jon Harvey
+ */
+public class CatalogueSeedLoader {
+
+    private static final Pattern INSERT = Pattern.compile(
+        "INSERT\\s+INTO\\s+CATALOGUE_ITEMS\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\((.*)\\)\\s*;?\\s*",
+        Pattern.CASE_INSENSITIVE);
+
+    private final Resource resource;
+
+    public CatalogueSeedLoader(Resource resource) {
+        this.resource = resource;
+    }
+
+    public List<CatalogueItem> load() {
+        List<CatalogueItem> items = new ArrayList<>();
+        Instant now = Instant.now();
+
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = INSERT.matcher(line.trim());
+                if (matcher.matches()) {
+                    items.add(toItem(matcher.group(1).split(","), literals(matcher.group(2)), now));
+                }
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read catalogue seed data from " + resource, ex);
+        }
+        return items;
+    }
+
+    private CatalogueItem toItem(String[] columns, List<String> values, Instant now) {
+        if (columns.length != values.size()) {
+            throw new IllegalStateException("Column and value count differ in seed data: " + values);
+        }
+        CatalogueItem item = new CatalogueItem();
+        item.setCreatedOn(now);
+        for (int i = 0; i < columns.length; i++) {
+            String value = values.get(i);
+            switch (columns[i].trim().toUpperCase()) {
+                case "ITEM_NAME":
+                    item.setName(value);
+                    break;
+                case "DESCRIPTION":
+                    item.setDescription(value);
+                    break;
+                case "CATEGORY":
+                    item.setCategory(value);
+                    break;
+                case "PRICE":
+                    item.setPrice(Double.valueOf(value));
+                    break;
+                case "INVENTORY":
+                    item.setInventory(Integer.valueOf(value));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported column in seed data: " + columns[i]);
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Splits a list of quoted SQL literals, '' being an escaped quote.
+     */
+    private List<String> literals(String list) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < list.length(); i++) {
+            char c = list.charAt(i);
+            if (quoted) {
+                if (c == '\'' && i + 1 < list.length() && list.charAt(i + 1) == '\'') {
+                    current.append(c);
+                    i++;
+                }
+                else if (c == '\'') {
+                    quoted = false;
+                }
+                else {
+                    current.append(c);
+                }
+            }
+            else if (c == '\'') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            }
+            else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+}
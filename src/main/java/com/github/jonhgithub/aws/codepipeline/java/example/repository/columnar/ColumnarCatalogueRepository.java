@@ -0,0 +1,311 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory implementation of CatalogueRepository for read heavy deployments which do not need SQL.
+ *
+ * Items are kept in a ColumnarTable: primitive columns for ids, prices, inventories and timestamps, and a
+ * dictionary for categories. Reads work on the snapshot published last and never lock. Writes are serialized,
+ * copy the segments they touch and publish a new snapshot, so a write costs a copy of the id index plus the
+ * touched segments. Batches (saveAll, deleteAll) pay that copy once.
+ *
+ * Behaves like the R2DBC repository for the column constraints of schema.sql: ids are generated on insert,
+ * updating an unknown id fails, and NOT NULL columns reject null values.
+ *
+ * @author Jon Harvey
+ */
+public class ColumnarCatalogueRepository implements CatalogueRepository {
+
+    private static final String TABLE = "CATALOGUE_ITEMS";
+
+    private final StringDictionary categories = new StringDictionary();
+
+    private volatile ColumnarTable table = new ColumnarTable(categories);
+
+    private long nextId = 1;
+
+    @Override
+    public <S extends CatalogueItem> Mono<S> save(S entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        return Mono.fromCallable(() -> {
+            write(editor -> upsert(editor, entity));
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends CatalogueItem> Flux<S> saveAll(Iterable<S> entities) {
+        Assert.notNull(entities, "The given Iterable of entities must not be null!");
+
+        return Flux.defer(() -> {
+            write(editor -> entities.forEach(entity -> upsert(editor, entity)));
+            return Flux.fromIterable(entities);
+        });
+    }
+
+    @Override
+    public <S extends CatalogueItem> Flux<S> saveAll(Publisher<S> entityStream) {
+        Assert.notNull(entityStream, "The given Publisher of entities must not be null!");
+
+        return Flux.from(entityStream).collectList().flatMapMany(this::saveAll);
+    }
+
+    @Override
+    public Mono<CatalogueItem> findById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return Mono.fromSupplier(() -> {
+            ColumnarTable snapshot = table;
+            int row = snapshot.row(id);
+            return row == LongIntHashMap.NO_VALUE ? null : snapshot.item(row);
+        });
+    }
+
+    @Override
+    public Mono<CatalogueItem> findById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return Mono.fromSupplier(() -> table.row(id) != LongIntHashMap.NO_VALUE);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAll() {
+        return findAll(Sort.unsorted());
+    }
+
+    /**
+     * Items are materialized one by one as they are requested, from the snapshot current at subscription.
+     */
+    @Override
+    public Flux<CatalogueItem> findAll(Sort sort) {
+        Assert.notNull(sort, "Sort must not be null!");
+
+        return Flux.defer(() -> {
+            ColumnarTable snapshot = table;
+            int[] rows = snapshot.rows(sort);
+            return Flux.range(0, rows.length).map(index -> snapshot.item(rows[index]));
+        });
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAllById(Iterable<Long> ids) {
+        Assert.notNull(ids, "The iterable of Id's must not be null!");
+
+        return Flux.defer(() -> {
+            ColumnarTable snapshot = table;
+            List<CatalogueItem> items = new ArrayList<>();
+            for (Long id : ids) {
+                int row = snapshot.row(id);
+                if (row != LongIntHashMap.NO_VALUE) {
+                    items.add(snapshot.item(row));
+                }
+            }
+            return Flux.fromIterable(items);
+        });
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAllById(Publisher<Long> idStream) {
+        return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) table.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return Mono.fromRunnable(() -> write(editor -> delete(editor, id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(CatalogueItem entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Long> ids) {
+        Assert.notNull(ids, "The iterable of Id's must not be null!");
+
+        return Mono.fromRunnable(() -> write(editor -> ids.forEach(id -> delete(editor, id))));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends CatalogueItem> entities) {
+        Assert.notNull(entities, "The iterable of Id's must not be null!");
+
+        return Mono.fromRunnable(() -> write(editor -> entities.forEach(entity -> delete(editor, entity.getId()))));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends CatalogueItem> entityStream) {
+        return Flux.from(entityStream).collectList().flatMap(this::deleteAll);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(() -> write(ColumnarTable.Editor::clear));
+    }
+
+    @Override
+    public Mono<Long> patchAllById(Collection<Long> ids, CatalogueItemPatch patch, Instant updatedOn) {
+        Assert.notNull(ids, "The collection of Id's must not be null!");
+
+        return Mono.fromSupplier(() -> count(editor -> {
+            long count = 0;
+            for (Long id : new LinkedHashSet<>(ids)) {
+                int row = editor.row(id);
+                if (row != LongIntHashMap.NO_VALUE) {
+                    editor.patch(row, patch, updatedOn);
+                    count++;
+                }
+            }
+            return count;
+        }));
+    }
+
+    @Override
+    public Mono<Long> patchAllByCategory(String category, CatalogueItemPatch patch, Instant updatedOn) {
+        return Mono.fromSupplier(() -> count(editor -> {
+            int[] rows = editor.rowsInCategory(category);
+            for (int row : rows) {
+                editor.patch(row, patch, updatedOn);
+            }
+            return rows.length;
+        }));
+    }
+
+    @Override
+    public Mono<Long> removeAllById(Collection<Long> ids) {
+        Assert.notNull(ids, "The collection of Id's must not be null!");
+
+        return Mono.fromSupplier(() -> count(editor -> {
+            int[] rows = new LinkedHashSet<>(ids).stream()
+                .mapToInt(editor::row)
+                .filter(row -> row != LongIntHashMap.NO_VALUE)
+                .toArray();
+            Arrays.sort(rows);
+            for (int i = rows.length - 1; i >= 0; i--) {
+                editor.delete(rows[i]);
+            }
+            return rows.length;
+        }));
+    }
+
+    @Override
+    public Mono<Long> removeAllByCategory(String category) {
+        return Mono.fromSupplier(() -> count(editor -> {
+            int[] rows = editor.rowsInCategory(category);
+            for (int row : rows) {
+                editor.delete(row);
+            }
+            return rows.length;
+        }));
+    }
+
+    /**
+     * Applies the change like write and returns the count it computed.
+     */
+    private long count(ToLongFunction<ColumnarTable.Editor> change) {
+        long[] count = new long[1];
+        write(editor -> count[0] = change.applyAsLong(editor));
+        return count[0];
+    }
+
+    /**
+     * Applies the change on a private copy and publishes it. Nothing is published if the change fails.
+     */
+    private synchronized void write(Consumer<ColumnarTable.Editor> change) {
+        ColumnarTable.Editor editor = table.edit();
+        long idBefore = nextId;
+        try {
+            change.accept(editor);
+        }
+        catch (RuntimeException ex) {
+            nextId = idBefore;
+            throw ex;
+        }
+        table = editor.publish();
+    }
+
+    private void upsert(ColumnarTable.Editor editor, CatalogueItem entity) {
+        checkNotNull(entity.getName(), "ITEM_NAME");
+        checkNotNull(entity.getDescription(), "DESCRIPTION");
+        checkNotNull(entity.getCategory(), "CATEGORY");
+        checkNotNull(entity.getPrice(), "PRICE");
+        checkNotNull(entity.getInventory(), "INVENTORY");
+
+        if (entity.getId() == null) {
+            if (entity.getCreatedOn() == null) {
+                // Column default of schema.sql
+                entity.setCreatedOn(Instant.now());
+            }
+            entity.setId(nextId++);
+            editor.insert(entity);
+            return;
+        }
+
+        checkNotNull(entity.getCreatedOn(), "CREATED_ON");
+        int row = editor.row(entity.getId());
+        if (row == LongIntHashMap.NO_VALUE) {
+            throw new TransientDataAccessResourceException(String.format(
+                "Failed to update table [%s]. Row with Id [%s] does not exist.", TABLE, entity.getId()));
+        }
+        editor.update(row, entity);
+    }
+
+    private void delete(ColumnarTable.Editor editor, Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        int row = editor.row(id);
+        if (row != LongIntHashMap.NO_VALUE) {
+            editor.delete(row);
+        }
+    }
+
+    private void checkNotNull(Object value, String column) {
+        if (value == null) {
+            throw new DataIntegrityViolationException(
+                String.format("NULL not allowed for column \"%s\" of table %s", column, TABLE));
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Immutable snapshot of the catalogue, stored column by column in fixed size segments.
+ *
+ * A change is made through an Editor which copies only the segments and id index partitions it touches, and then
+ * publishes a new table. Untouched segments and partitions are shared between snapshots, so readers never lock
+ * and never see a partially applied change.
+ *
+ * @author Jon Harvey
+ */
+final class ColumnarTable {
+
+    static final int SEGMENT_SHIFT = 10;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * The id index is split by hash into this many maps, so a write copies a fraction of it.
+     */
+    private static final int INDEX_PARTITION_BITS = 6;
+    private static final int INDEX_PARTITIONS = 1 << INDEX_PARTITION_BITS;
+
+    /**
+     * Nanos value marking a null timestamp.
+     */
+    private static final int NO_TIMESTAMP = -1;
+
+    private final Segment[] segments;
+    private final LongIntHashMap[] rows;
+    private final StringDictionary categories;
+    private final int size;
+
+    /**
+     * Row order for the last requested sort, computed lazily as the snapshot never changes.
+     */
+    private volatile SortedRows sortedRows;
+
+    ColumnarTable(StringDictionary categories) {
+        this(new Segment[0], emptyIndex(), categories, 0);
+    }
+
+    private ColumnarTable(Segment[] segments, LongIntHashMap[] rows, StringDictionary categories, int size) {
+        this.segments = segments;
+        this.rows = rows;
+        this.categories = categories;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int row(long id) {
+        return rows[partition(id)].get(id);
+    }
+
+    long id(int row) {
+        return segments[row >>> SEGMENT_SHIFT].ids[row & SEGMENT_MASK];
+    }
+
+    CatalogueItem item(int row) {
+        Segment segment = segments[row >>> SEGMENT_SHIFT];
+        int index = row & SEGMENT_MASK;
+
+        CatalogueItem item = new CatalogueItem();
+        item.setId(segment.ids[index]);
+        item.setName(segment.names[index]);
+        item.setDescription(segment.descriptions[index]);
+        item.setCategory(categories.value(segment.categories[index]));
+        item.setPrice(segment.prices[index]);
+        item.setInventory(segment.inventories[index]);
+        item.setCreatedOn(instant(segment.createdSeconds[index], segment.createdNanos[index]));
+        item.setUpdatedOn(instant(segment.updatedSeconds[index], segment.updatedNanos[index]));
+        return item;
+    }
+
+    /**
+     * Rows in the requested order. Unsorted requests return the storage order.
+     */
+    int[] rows(Sort sort) {
+        int[] order;
+        if (sort.isUnsorted()) {
+            order = new int[size];
+            Arrays.setAll(order, row -> row);
+            return order;
+        }
+        SortedRows cached = sortedRows;
+        if (cached != null && cached.sort.equals(sort)) {
+            return cached.rows;
+        }
+        order = new int[size];
+        Integer[] boxed = new Integer[size];
+        Arrays.setAll(boxed, row -> row);
+        Arrays.sort(boxed, comparator(sort));
+        for (int i = 0; i < size; i++) {
+            order[i] = boxed[i];
+        }
+        sortedRows = new SortedRows(sort, order);
+        return order;
+    }
+
+    Editor edit() {
+        return new Editor(this);
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> next = comparator(order);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private Comparator<Integer> comparator(Sort.Order order) {
+        Comparator<Integer> comparator;
+        switch (order.getProperty()) {
+            case "id":
+                comparator = Comparator.comparingLong(this::id);
+                break;
+            case "name":
+                comparator = Comparator.comparing(row -> segment(row).names[row & SEGMENT_MASK], strings(order));
+                break;
+            case "description":
+                comparator = Comparator.comparing(row -> segment(row).descriptions[row & SEGMENT_MASK], strings(order));
+                break;
+            case "category":
+                comparator = Comparator.comparing(
+                    row -> categories.value(segment(row).categories[row & SEGMENT_MASK]), strings(order));
+                break;
+            case "price":
+                comparator = Comparator.comparingDouble(row -> segment(row).prices[row & SEGMENT_MASK]);
+                break;
+            case "inventory":
+                comparator = Comparator.comparingInt(row -> segment(row).inventories[row & SEGMENT_MASK]);
+                break;
+            case "createdOn":
+                comparator = Comparator.comparing(row -> createdOn(row), timestamps(order));
+                break;
+            case "updatedOn":
+                comparator = Comparator.comparing(row -> updatedOn(row), timestamps(order));
+                break;
+            default:
+                throw new IllegalArgumentException(
+                    String.format("No property %s found for type CatalogueItem", order.getProperty()));
+        }
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private Comparator<String> strings(Sort.Order order) {
+        return order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+    }
+
+    /**
+     * Nulls sort low, as H2 does by default, unless the order asks otherwise.
+     */
+    private Comparator<Instant> timestamps(Sort.Order order) {
+        boolean nullsFirst;
+        switch (order.getNullHandling()) {
+            case NULLS_FIRST:
+                nullsFirst = order.isAscending();
+                break;
+            case NULLS_LAST:
+                nullsFirst = !order.isAscending();
+                break;
+            default:
+                nullsFirst = true;
+        }
+        return nullsFirst
+            ? Comparator.nullsFirst(Comparator.naturalOrder())
+            : Comparator.nullsLast(Comparator.naturalOrder());
+    }
+
+    private Instant createdOn(int row) {
+        Segment segment = segment(row);
+        return instant(segment.createdSeconds[row & SEGMENT_MASK], segment.createdNanos[row & SEGMENT_MASK]);
+    }
+
+    private Instant updatedOn(int row) {
+        Segment segment = segment(row);
+        return instant(segment.updatedSeconds[row & SEGMENT_MASK], segment.updatedNanos[row & SEGMENT_MASK]);
+    }
+
+    private Segment segment(int row) {
+        return segments[row >>> SEGMENT_SHIFT];
+    }
+
+    private static LongIntHashMap[] emptyIndex() {
+        LongIntHashMap[] index = new LongIntHashMap[INDEX_PARTITIONS];
+        Arrays.setAll(index, partition -> new LongIntHashMap());
+        return index;
+    }
+
+    /**
+     * High bits of the Fibonacci hash, the map itself slots by the low ones.
+     */
+    private static int partition(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - INDEX_PARTITION_BITS));
+    }
+
+    private static Instant instant(long seconds, int nanos) {
+        return nanos == NO_TIMESTAMP ? null : Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    private static final class SortedRows {
+
+        private final Sort sort;
+        private final int[] rows;
+
+        private SortedRows(Sort sort, int[] rows) {
+            this.sort = sort;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * One block of rows, each column held in a primitive array where the type allows it.
+     */
+    private static final class Segment {
+
+        private final long[] ids = new long[SEGMENT_SIZE];
+        private final String[] names = new String[SEGMENT_SIZE];
+        private final String[] descriptions = new String[SEGMENT_SIZE];
+        private final int[] categories = new int[SEGMENT_SIZE];
+        private final double[] prices = new double[SEGMENT_SIZE];
+        private final int[] inventories = new int[SEGMENT_SIZE];
+        private final long[] createdSeconds = new long[SEGMENT_SIZE];
+        private final int[] createdNanos = new int[SEGMENT_SIZE];
+        private final long[] updatedSeconds = new long[SEGMENT_SIZE];
+        private final int[] updatedNanos = new int[SEGMENT_SIZE];
+
+        private Segment copy() {
+            Segment copy = new Segment();
+            System.arraycopy(ids, 0, copy.ids, 0, SEGMENT_SIZE);
+            System.arraycopy(names, 0, copy.names, 0, SEGMENT_SIZE);
+            System.arraycopy(descriptions, 0, copy.descriptions, 0, SEGMENT_SIZE);
+            System.arraycopy(categories, 0, copy.categories, 0, SEGMENT_SIZE);
+            System.arraycopy(prices, 0, copy.prices, 0, SEGMENT_SIZE);
+            System.arraycopy(inventories, 0, copy.inventories, 0, SEGMENT_SIZE);
+            System.arraycopy(createdSeconds, 0, copy.createdSeconds, 0, SEGMENT_SIZE);
+            System.arraycopy(createdNanos, 0, copy.createdNanos, 0, SEGMENT_SIZE);
+            System.arraycopy(updatedSeconds, 0, copy.updatedSeconds, 0, SEGMENT_SIZE);
+            System.arraycopy(updatedNanos, 0, copy.updatedNanos, 0, SEGMENT_SIZE);
+            return copy;
+        }
+
+        private void copyRow(int from, Segment target, int to) {
+            target.ids[to] = ids[from];
+            target.names[to] = names[from];
+            target.descriptions[to] = descriptions[from];
+            target.categories[to] = categories[from];
+            target.prices[to] = prices[from];
+            target.inventories[to] = inventories[from];
+            target.createdSeconds[to] = createdSeconds[from];
+            target.createdNanos[to] = createdNanos[from];
+            target.updatedSeconds[to] = updatedSeconds[from];
+            target.updatedNanos[to] = updatedNanos[from];
+        }
+
+        private void clearRow(int index) {
+            names[index] = null;
+            descriptions[index] = null;
+        }
+    }
+
+    /**
+     * Accumulates changes on private copies of the touched segments and id index partitions. Each of them is
+     * copied at most once per edit, so a batch costs one copy of what it touches however many rows it changes.
+     */
+    static final class Editor {
+
+        private final StringDictionary categories;
+        private Segment[] segments;
+        private boolean[] owned;
+        private LongIntHashMap[] rows;
+        private boolean[] ownedRows;
+        private int size;
+
+        private Editor(ColumnarTable table) {
+            this.categories = table.categories;
+            this.segments = table.segments.clone();
+            this.owned = new boolean[segments.length];
+            this.rows = table.rows.clone();
+            this.ownedRows = new boolean[INDEX_PARTITIONS];
+            this.size = table.size;
+        }
+
+        int row(long id) {
+            return rows[partition(id)].get(id);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void insert(CatalogueItem item) {
+            int row = size;
+            if ((row >>> SEGMENT_SHIFT) == segments.length) {
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                owned = Arrays.copyOf(owned, owned.length + 1);
+                segments[segments.length - 1] = new Segment();
+                owned[owned.length - 1] = true;
+            }
+            size++;
+            write(row, item);
+            writableRows(item.getId()).put(item.getId(), row);
+        }
+
+        void update(int row, CatalogueItem item) {
+            write(row, item);
+        }
+
+        /**
+         * Writes the non null fields of the patch into their columns, without materializing the item.
+         */
+        void patch(int row, CatalogueItemPatch patch, Instant updatedOn) {
+            Segment segment = writable(row);
+            int index = row & SEGMENT_MASK;
+            if (patch.getPrice() != null) {
+                segment.prices[index] = patch.getPrice();
+            }
+            if (patch.getInventory() != null) {
+                segment.inventories[index] = patch.getInventory();
+            }
+            if (patch.getCategory() != null) {
+                segment.categories[index] = categories.encode(patch.getCategory());
+            }
+            segment.updatedSeconds[index] = updatedOn.getEpochSecond();
+            segment.updatedNanos[index] = updatedOn.getNano();
+        }
+
+        /**
+         * @return rows of the category in descending order, the order in which they can be deleted
+         */
+        int[] rowsInCategory(String category) {
+            int code = categories.code(category);
+            if (code < 0) {
+                return new int[0];
+            }
+            int[] rows = new int[size];
+            int count = 0;
+            for (int row = size - 1; row >= 0; row--) {
+                if (segments[row >>> SEGMENT_SHIFT].categories[row & SEGMENT_MASK] == code) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        /**
+         * Moves the last row into the deleted one so the rows stay contiguous. When deleting several rows,
+         * delete them in descending order so no row still to be deleted is moved.
+         */
+        void delete(int row) {
+            int last = size - 1;
+            Segment target = writable(row);
+            long id = target.ids[row & SEGMENT_MASK];
+            if (row != last) {
+                Segment source = segments[last >>> SEGMENT_SHIFT];
+                source.copyRow(last & SEGMENT_MASK, target, row & SEGMENT_MASK);
+                long moved = target.ids[row & SEGMENT_MASK];
+                writableRows(moved).put(moved, row);
+            }
+            writable(last).clearRow(last & SEGMENT_MASK);
+            writableRows(id).remove(id);
+            size = last;
+            if ((size & SEGMENT_MASK) == 0 && segments.length > (size >>> SEGMENT_SHIFT)) {
+                segments = Arrays.copyOf(segments, size >>> SEGMENT_SHIFT);
+                owned = Arrays.copyOf(owned, segments.length);
+            }
+        }
+
+        void clear() {
+            segments = new Segment[0];
+            owned = new boolean[0];
+            rows = emptyIndex();
+            ownedRows = new boolean[INDEX_PARTITIONS];
+            Arrays.fill(ownedRows, true);
+            size = 0;
+        }
+
+        ColumnarTable publish() {
+            return new ColumnarTable(segments, rows, categories, size);
+        }
+
+        private void write(int row, CatalogueItem item) {
+            Segment segment = writable(row);
+            int index = row & SEGMENT_MASK;
+            segment.ids[index] = item.getId();
+            segment.names[index] = item.getName();
+            segment.descriptions[index] = item.getDescription();
+            segment.categories[index] = categories.encode(item.getCategory());
+            segment.prices[index] = item.getPrice();
+            segment.inventories[index] = item.getInventory();
+            segment.createdSeconds[index] = item.getCreatedOn().getEpochSecond();
+            segment.createdNanos[index] = item.getCreatedOn().getNano();
+            if (item.getUpdatedOn() == null) {
+                segment.updatedSeconds[index] = 0;
+                segment.updatedNanos[index] = NO_TIMESTAMP;
+            }
+            else {
+                segment.updatedSeconds[index] = item.getUpdatedOn().getEpochSecond();
+                segment.updatedNanos[index] = item.getUpdatedOn().getNano();
+            }
+        }
+
+        private Segment writable(int row) {
+            int index = row >>> SEGMENT_SHIFT;
+            if (!owned[index]) {
+                segments[index] = segments[index].copy();
+                owned[index] = true;
+            }
+            return segments[index];
+        }
+
+        private LongIntHashMap writableRows(long id) {
+            int partition = partition(id);
+            if (!ownedRows[partition]) {
+                rows[partition] = rows[partition].copy();
+                ownedRows[partition] = true;
+            }
+            return rows[partition];
+        }
+    }
+}
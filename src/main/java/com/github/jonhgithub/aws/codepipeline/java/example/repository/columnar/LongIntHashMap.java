@@ -0,0 +1,124 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+/**
+ * Open addressing map from long keys to non negative int values, without boxing.
+ *
+ * Not thread safe. The columnar table copies the map before changing it and only publishes the copy once the
+ * change is complete, so readers always see an instance which is no longer modified.
+ *
+ * @author Jon Harvey
+ */
+final class LongIntHashMap {
+
+    static final int NO_VALUE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+
+    /**
+     * Value + 1, so 0 marks a free slot.
+     */
+    private int[] values;
+
+    private int size;
+
+    LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    private LongIntHashMap(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    private LongIntHashMap(LongIntHashMap other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.size = other.size;
+    }
+
+    LongIntHashMap copy() {
+        return new LongIntHashMap(this);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return NO_VALUE;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value + 1;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        size++;
+    }
+
+    /**
+     * Removes the key, shifting back the entries of its probe sequence so lookups need no tombstones.
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == 0) {
+            return;
+        }
+        size--;
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            // Move the entry back if its home slot is not between the free slot and its current slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+        values[free] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
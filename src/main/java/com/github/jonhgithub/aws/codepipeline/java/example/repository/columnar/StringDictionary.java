@@ -0,0 +1,53 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append only dictionary encoding low cardinality strings, such as categories, as int codes.
+ *
+ * Codes are only added by the single writer of the columnar table. Readers resolve codes they found in a
+ * published snapshot, and those codes were added before the snapshot was published.
+ *
+ * @author Jon Harvey
+ */
+final class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private volatile String[] values = new String[8];
+
+    private int size;
+
+    String value(int code) {
+        return values[code];
+    }
+
+    /**
+     * Must only be called by the writer of the table.
+     *
+     * @return code of the value, -1 if it was never encoded
+     */
+    int code(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    /**
+     * Must only be called by the writer of the table.
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+}
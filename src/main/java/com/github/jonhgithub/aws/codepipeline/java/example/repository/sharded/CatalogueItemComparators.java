@@ -0,0 +1,85 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.sharded;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.util.Comparator;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Comparators ordering CatalogueItems the way the shard databases order them for a Sort, so rows already
+ * sorted by each shard can be merged.
+ *
+ * Nulls follow the H2 default, first in ascending and last in descending order, unless the Sort says otherwise.
+ *
+ * @author Jon Harvey
+ */
+final class CatalogueItemComparators {
+
+    private CatalogueItemComparators() {
+    }
+
+    /**
+     * @param sort
+     * @return comparator, null when the Sort is unsorted
+     */
+    static Comparator<CatalogueItem> forSort(Sort sort) {
+        Comparator<CatalogueItem> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CatalogueItem> next = forOrder(order);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static Comparator<CatalogueItem> forOrder(Sort.Order order) {
+        Comparator<Object> values = order.isIgnoreCase()
+            ? (left, right) -> String.CASE_INSENSITIVE_ORDER.compare((String) left, (String) right)
+            : CatalogueItemComparators::compareValues;
+        if (order.isDescending()) {
+            values = values.reversed();
+        }
+
+        boolean nullsFirst;
+        switch (order.getNullHandling()) {
+            case NULLS_FIRST:
+                nullsFirst = true;
+                break;
+            case NULLS_LAST:
+                nullsFirst = false;
+                break;
+            default:
+                nullsFirst = order.isAscending();
+        }
+
+        return Comparator.comparing(property(order.getProperty()),
+            nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object left, Object right) {
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    private static Function<CatalogueItem, Object> property(String name) {
+        switch (name) {
+            case "id":
+                return CatalogueItem::getId;
+            case "name":
+                return CatalogueItem::getName;
+            case "description":
+                return CatalogueItem::getDescription;
+            case "category":
+                return CatalogueItem::getCategory;
+            case "price":
+                return CatalogueItem::getPrice;
+            case "inventory":
+                return CatalogueItem::getInventory;
+            case "createdOn":
+                return CatalogueItem::getCreatedOn;
+            case "updatedOn":
+                return CatalogueItem::getUpdatedOn;
+            default:
+                throw new IllegalArgumentException("Cannot sort catalogue items by " + name);
+        }
+    }
+}
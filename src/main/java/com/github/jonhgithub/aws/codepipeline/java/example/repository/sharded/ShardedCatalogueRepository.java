@@ -0,0 +1,383 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.sharded;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueBulkRepositoryImpl;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of CatalogueRepository spreading items over several databases, each with its own
+ * CATALOGUE_ITEMS table, to scale writes beyond one database.
+ *
+ * Items are routed by id. Each shard generates local ids with its own identity column and the global id is
+ * (local id - 1) * shards + shard + 1, so shard s owns the ids s + 1, s + 1 + shards, ... Ids stay unique
+ * without any coordination between shards and the shard of an item is known from its id alone. New items are
+ * spread round robin. The number of shards therefore cannot change once items are stored.
+ *
+ * Listing queries every shard in parallel with the same Sort and merges the sorted streams as they arrive,
+ * holding only a prefetch window per shard.
+ *
+ * @author Jon Harvey
+ */
+public class ShardedCatalogueRepository implements CatalogueRepository, Closeable {
+
+    private static final String ID = "id";
+
+    private final List<ConnectionFactory> connectionFactories;
+    private final List<R2dbcEntityTemplate> shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedCatalogueRepository(List<? extends ConnectionFactory> connectionFactories) {
+        Assert.notEmpty(connectionFactories, "At least one shard is required");
+
+        this.connectionFactories = new ArrayList<>(connectionFactories);
+        this.shards = this.connectionFactories.stream()
+            .map(R2dbcEntityTemplate::new)
+            .collect(Collectors.toList());
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @param id
+     * @return index of the shard owning the id
+     */
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id - 1, (long) shards.size());
+    }
+
+    @Override
+    public <S extends CatalogueItem> Mono<S> save(S entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        if (entity.getId() == null) {
+            return insert(entity);
+        }
+        long id = entity.getId();
+        return Mono.defer(() -> shards.get(shardOf(id)).update(withId(entity, localId(id))))
+            .thenReturn(entity);
+    }
+
+    /**
+     * Shards are written in parallel, each saving its share of the entities in order. New entities are assigned
+     * round robin up front, so ids still follow the order of the entities.
+     */
+    @Override
+    public <S extends CatalogueItem> Flux<S> saveAll(Iterable<S> entities) {
+        Assert.notNull(entities, "The given Iterable of entities must not be null!");
+
+        return Flux.defer(() -> {
+            List<List<S>> byShard = new ArrayList<>(shards.size());
+            List<S> all = new ArrayList<>();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                byShard.add(new ArrayList<>());
+            }
+            entities.forEach(all::add);
+
+            int insertCount = (int) all.stream().filter(entity -> entity.getId() == null).count();
+            int next = nextShard.getAndAdd(insertCount);
+            for (S entity : all) {
+                int shard = entity.getId() == null
+                    ? Math.floorMod(next++, shards.size())
+                    : shardOf(entity.getId());
+                byShard.get(shard).add(entity);
+            }
+
+            List<Flux<S>> writes = new ArrayList<>(shards.size());
+            for (int shard = 0; shard < shards.size(); shard++) {
+                int target = shard;
+                writes.add(Flux.fromIterable(byShard.get(shard))
+                    .concatMap(entity -> entity.getId() == null ? insert(entity, target) : save(entity)));
+            }
+            return Flux.merge(writes).thenMany(Flux.fromIterable(all));
+        });
+    }
+
+    @Override
+    public <S extends CatalogueItem> Flux<S> saveAll(Publisher<S> entityStream) {
+        Assert.notNull(entityStream, "The given Publisher of entities must not be null!");
+
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<CatalogueItem> findById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        int shard = shardOf(id);
+        return shards.get(shard)
+            .selectOne(byLocalId(localId(id)), CatalogueItem.class)
+            .map(globalId(shard));
+    }
+
+    @Override
+    public Mono<CatalogueItem> findById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return shards.get(shardOf(id)).exists(byLocalId(localId(id)), CatalogueItem.class);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAll() {
+        return findAll(Sort.unsorted());
+    }
+
+    /**
+     * Scatter-gather: every shard sorts its own rows and the streams are merged by the same Sort.
+     */
+    @Override
+    public Flux<CatalogueItem> findAll(Sort sort) {
+        Assert.notNull(sort, "Sort must not be null!");
+
+        Comparator<CatalogueItem> comparator = CatalogueItemComparators.forSort(sort);
+        List<Flux<CatalogueItem>> sources = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            sources.add(shards.get(shard)
+                .select(Query.empty().sort(sort), CatalogueItem.class)
+                .map(globalId(shard)));
+        }
+
+        return comparator == null ? Flux.merge(sources) : Flux.mergeOrdered(comparator, toArray(sources));
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAllById(Iterable<Long> ids) {
+        Assert.notNull(ids, "The iterable of Id's must not be null!");
+
+        return Flux.defer(() -> {
+            List<List<Long>> localIds = localIdsByShard(ids);
+            List<Flux<CatalogueItem>> sources = new ArrayList<>();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                if (!localIds.get(shard).isEmpty()) {
+                    sources.add(shards.get(shard)
+                        .select(byLocalIds(localIds.get(shard)), CatalogueItem.class)
+                        .map(globalId(shard)));
+                }
+            }
+            return Flux.merge(sources);
+        });
+    }
+
+    @Override
+    public Flux<CatalogueItem> findAllById(Publisher<Long> idStream) {
+        return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Flux.fromIterable(shards)
+            .flatMap(shard -> shard.count(Query.empty(), CatalogueItem.class))
+            .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return shards.get(shardOf(id)).delete(byLocalId(localId(id)), CatalogueItem.class).then();
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(CatalogueItem entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Long> ids) {
+        Assert.notNull(ids, "The iterable of Id's must not be null!");
+
+        return Mono.defer(() -> {
+            List<List<Long>> localIds = localIdsByShard(ids);
+            List<Mono<Integer>> deletes = new ArrayList<>();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                if (!localIds.get(shard).isEmpty()) {
+                    deletes.add(shards.get(shard).delete(byLocalIds(localIds.get(shard)), CatalogueItem.class));
+                }
+            }
+            return Mono.when(deletes);
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends CatalogueItem> entities) {
+        Assert.notNull(entities, "The iterable of Id's must not be null!");
+
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        return deleteAllById(ids);
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends CatalogueItem> entityStream) {
+        return Flux.from(entityStream).collectList().flatMap(this::deleteAll);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Flux.fromIterable(shards)
+            .flatMap(shard -> shard.delete(Query.empty(), CatalogueItem.class))
+            .then();
+    }
+
+    @Override
+    public Mono<Long> patchAllById(Collection<Long> ids, CatalogueItemPatch patch, Instant updatedOn) {
+        Assert.notNull(ids, "The collection of Id's must not be null!");
+
+        return byShard(ids, (shard, localIds) ->
+            CatalogueBulkRepositoryImpl.patchAllById(shards.get(shard), localIds, patch, updatedOn));
+    }
+
+    @Override
+    public Mono<Long> patchAllByCategory(String category, CatalogueItemPatch patch, Instant updatedOn) {
+        Update update = CatalogueBulkRepositoryImpl.update(patch, updatedOn);
+        return Flux.fromIterable(shards)
+            .flatMap(shard -> shard.update(CatalogueBulkRepositoryImpl.byCategory(category), update, CatalogueItem.class))
+            .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<Long> removeAllById(Collection<Long> ids) {
+        Assert.notNull(ids, "The collection of Id's must not be null!");
+
+        return byShard(ids, (shard, localIds) -> CatalogueBulkRepositoryImpl.removeAllById(shards.get(shard), localIds));
+    }
+
+    @Override
+    public Mono<Long> removeAllByCategory(String category) {
+        return Flux.fromIterable(shards)
+            .flatMap(shard -> shard.delete(CatalogueBulkRepositoryImpl.byCategory(category), CatalogueItem.class))
+            .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Disposes the shard connection pools.
+     */
+    @Override
+    public void close() {
+        connectionFactories.stream()
+            .filter(Disposable.class::isInstance)
+            .map(Disposable.class::cast)
+            .forEach(Disposable::dispose);
+    }
+
+    private <S extends CatalogueItem> Mono<S> insert(S entity) {
+        return Mono.defer(() -> insert(entity, Math.floorMod(nextShard.getAndIncrement(), shards.size())));
+    }
+
+    private <S extends CatalogueItem> Mono<S> insert(S entity, int shard) {
+        return shards.get(shard).insert(entity).map(globalId(shard));
+    }
+
+    private long localId(long id) {
+        return Math.floorDiv(id - 1, (long) shards.size()) + 1;
+    }
+
+    private <S extends CatalogueItem> Function<S, S> globalId(int shard) {
+        return item -> {
+            item.setId((item.getId() - 1) * shards.size() + shard + 1);
+            return item;
+        };
+    }
+
+    /**
+     * Copy of the entity to write under its local id, the caller's instance keeps its global id throughout.
+     * Fields left null are left unset, the @NonNull setters reject null.
+     */
+    private static CatalogueItem withId(CatalogueItem entity, long id) {
+        CatalogueItem copy = new CatalogueItem();
+        copy.setId(id);
+
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(entity::getName).to(copy::setName);
+        map.from(entity::getDescription).to(copy::setDescription);
+        map.from(entity::getCategory).to(copy::setCategory);
+        map.from(entity::getPrice).to(copy::setPrice);
+        map.from(entity::getInventory).to(copy::setInventory);
+        map.from(entity::getCreatedOn).to(copy::setCreatedOn);
+        map.from(entity::getUpdatedOn).to(copy::setUpdatedOn);
+
+        return copy;
+    }
+
+    private List<List<Long>> localIdsByShard(Iterable<? extends Long> ids) {
+        List<List<Long>> localIds = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            localIds.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            Assert.notNull(id, "Id must not be null!");
+            localIds.get(shardOf(id)).add(localId(id));
+        }
+        return localIds;
+    }
+
+    /**
+     * Runs the operation for the local ids of every shard holding some of the ids, shards in parallel.
+     */
+    private Mono<Long> byShard(Collection<Long> ids, BiFunction<Integer, List<Long>, Mono<Long>> operation) {
+        return Mono.defer(() -> {
+            List<List<Long>> localIds = localIdsByShard(ids);
+            List<Mono<Long>> operations = new ArrayList<>();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                if (!localIds.get(shard).isEmpty()) {
+                    operations.add(operation.apply(shard, localIds.get(shard)));
+                }
+            }
+            return Flux.merge(operations).reduce(0L, Long::sum);
+        });
+    }
+
+    private Query byLocalId(long localId) {
+        return Query.query(Criteria.where(ID).is(localId));
+    }
+
+    private Query byLocalIds(List<Long> localIds) {
+        return Query.query(Criteria.where(ID).in(localIds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Flux<CatalogueItem>[] toArray(List<Flux<CatalogueItem>> sources) {
+        return sources.toArray(new Flux[0]);
+    }
+}
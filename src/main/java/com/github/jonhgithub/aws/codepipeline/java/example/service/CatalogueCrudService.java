@@ -1,14 +1,28 @@
 package com.github.jonhgithub.aws.codepipeline.java.example.service;
 
+import com.github.jonhgithub.aws.codepipeline.java.example.datasource.ReadReplica;
 import com.github.jonhgithub.aws.codepipeline.java.example.exception.ResourceNotFoundException;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkDeleteRequest;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkUpdateRequest;
 import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.Category;
 import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueRepository;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 /**
  * Service class to handle Catalogue Item CRUD Operations.
@@ -19,18 +33,28 @@ import reactor.core.publisher.Mono;
 @Service
 public class CatalogueCrudService {
 
+    static final int UPSERT_BATCH_SIZE = 256;
+    static final Duration UPSERT_BATCH_TIMEOUT = Duration.ofMillis(20);
+
+    /**
+     * Marks the timeout of the batch being collected among the upserted items.
+     */
+    private static final CatalogueItem FLUSH = new CatalogueItem();
+
     private final CatalogueRepository catalogueRepository;
 
     CatalogueCrudService(CatalogueRepository catalogueRepository) {
         this.catalogueRepository = catalogueRepository;
     }
 
+    @ReadReplica
     public Flux<CatalogueItem> getCatalogueItems() {
         Sort sort = Sort.by(Sort.Direction.ASC, "name");
 
         return catalogueRepository.findAll(sort);
     }
 
+    @ReadReplica
     public Mono<CatalogueItem> getCatalogueItem(Long id) throws ResourceNotFoundException {
         return getCatalogueItemById(id);
     }
@@ -62,10 +86,170 @@ public class CatalogueCrudService {
             });
     }
 
-    public void deleteCatalogueItem(CatalogueItem catalogueItem) {
+    /**
+     * Looks the item up on the primary, like updateCatalogueItem, so a lagging replica cannot hide it.
+     *
+     * @param id
+     * @return completes once the item is deleted
+     */
+    public Mono<Void> deleteCatalogueItem(Long id) throws ResourceNotFoundException {
+        return getCatalogueItemById(id).flatMap(catalogueRepository::delete);
+    }
+
+    /**
+     * Apply the patch to the selected items with set based updates instead of one lookup and save per item.
+     *
+     * @param request
+     * @return number of updated items
+     */
+    public Mono<Long> updateCatalogueItems(BulkUpdateRequest request) {
+        Instant now = Instant.now();
+        CatalogueItemPatch patch = canonical(request.getPatch());
+
+        return request.getIds() != null && !request.getIds().isEmpty()
+            ? catalogueRepository.patchAllById(request.getIds(), patch, now)
+            : catalogueRepository.patchAllByCategory(Category.canonicalValue(request.getCategory()), patch, now);
+    }
+
+    /**
+     * Delete the selected items with set based deletes.
+     *
+     * @param request
+     * @return number of deleted items
+     */
+    public Mono<Long> deleteCatalogueItems(BulkDeleteRequest request) {
+
+        return request.getIds() != null && !request.getIds().isEmpty()
+            ? catalogueRepository.removeAllById(request.getIds())
+            : catalogueRepository.removeAllByCategory(Category.canonicalValue(request.getCategory()));
+    }
+
+    /**
+     * Copy of the patch with its category as stored, the request is left as received.
+     */
+    private static CatalogueItemPatch canonical(CatalogueItemPatch patch) {
+        CatalogueItemPatch canonical = new CatalogueItemPatch();
+        canonical.setPrice(patch.getPrice());
+        canonical.setInventory(patch.getInventory());
+        canonical.setCategory(Category.canonicalValue(patch.getCategory()));
+        return canonical;
+    }
+
+    /**
+     * Create items without id and update the others, in batches of up to UPSERT_BATCH_SIZE items. A batch is
+     * written once it is full or at the latest UPSERT_BATCH_TIMEOUT after its first item, so a slow producer
+     * still gets its ids back promptly. Batches are written one after the other, in the order received.
+     *
+     * bufferTimeout and windowTimeout emit on timeout whether or not a batch was requested, and fail with an
+     * overflow once writes fall behind. Here the first item of each batch starts a timer, replacing the one of the
+     * previous batch, and its timeout is a FLUSH marker merged into the items. A timeout nobody requested is
+     * dropped, and batches are cut from that single ordered stream. At most one batch is collected ahead of the
+     * write, so a slow database slows down the producer through request(n).
+     *
+     * @param catalogueItems
+     * @return id of each item, in the order received
+     */
+    public Flux<Long> upsertCatalogueItems(Flux<CatalogueItem> catalogueItems) {
+
+        return Flux.defer(() -> {
+            Sinks.Many<CatalogueItem> batchStarts = Sinks.many().unicast().onBackpressureBuffer();
+            return catalogueItems
+                .publish(items -> Flux.merge(1, items, batchStarts.asFlux()
+                        .switchMap(first -> Mono.delay(UPSERT_BATCH_TIMEOUT))
+                        .onBackpressureDrop()
+                        .map(timeout -> FLUSH)
+                        .takeUntilOther(items.then()))
+                    .bufferUntil(batchEnd(batchStarts)));
+        })
+            .map(batch -> {
+                // Only the last item of a batch can be FLUSH
+                if (batch.get(batch.size() - 1) == FLUSH) {
+                    batch.remove(batch.size() - 1);
+                }
+                return batch;
+            })
+            .filter(batch -> !batch.isEmpty())
+            .concatMap(this::upsertCatalogueItems, 1);
+    }
+
+    /**
+     * A batch closed on its size leaves its timer running, the FLUSH it ends up with closes an empty batch or
+     * the next one early, never one later than UPSERT_BATCH_TIMEOUT.
+     *
+     * @param batchStarts receives the first item of each batch
+     * @return predicate closing a batch on FLUSH or once it holds UPSERT_BATCH_SIZE items, one per subscription
+     */
+    private static Predicate<CatalogueItem> batchEnd(Sinks.Many<CatalogueItem> batchStarts) {
+        int[] size = new int[1];
+        return item -> {
+            if (item != FLUSH && size[0] == 0) {
+                batchStarts.tryEmitNext(item);
+            }
+            if (item == FLUSH || ++size[0] == UPSERT_BATCH_SIZE) {
+                size[0] = 0;
+                return true;
+            }
+            return false;
+        };
+    }
+
+    private Flux<Long> upsertCatalogueItems(List<CatalogueItem> batch) {
+        Instant now = Instant.now();
+
+        boolean[] isNew = new boolean[batch.size()];
+        List<CatalogueItem> created = new ArrayList<>();
+        Map<Long, CatalogueItem> updated = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            CatalogueItem item = batch.get(i);
+            if (item.getId() == null) {
+                isNew[i] = true;
+                item.setCreatedOn(now);
+                created.add(item);
+            }
+            else {
+                updated.put(item.getId(), item);
+            }
+        }
+
+        Mono<Void> update = updated.isEmpty() ? Mono.empty() : catalogueRepository
+            .findAllById(updated.keySet())
+            .map(value -> {
+                CatalogueItem catalogueItem = updated.get(value.getId());
+                value.setName(catalogueItem.getName());
+                value.setDescription(catalogueItem.getDescription());
+                value.setCategory(catalogueItem.getCategory());
+                value.setPrice(catalogueItem.getPrice());
+                value.setInventory(catalogueItem.getInventory());
+                value.setUpdatedOn(now);
+                return value;
+            })
+            .collectList()
+            .flatMap(values -> values.size() == updated.size()
+                ? catalogueRepository.saveAll(values).then()
+                : Mono.error(notFound(updated.keySet(), values)));
+
+        Mono<List<Long>> create = created.isEmpty() ? Mono.just(List.of()) : catalogueRepository
+            .saveAll(created)
+            .map(CatalogueItem::getId)
+            .collectList();
+
+        return update.then(create).flatMapIterable(ids -> {
+            // Ids of created items come back in the order they were saved, merge them in the batch order
+            Iterator<Long> createdIds = ids.iterator();
+            List<Long> result = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                result.add(isNew[i] ? createdIds.next() : batch.get(i).getId());
+            }
+            return result;
+        });
+    }
+
+    private ResourceNotFoundException notFound(Collection<Long> ids, List<CatalogueItem> found) {
+        List<Long> missing = new ArrayList<>(ids);
+        found.forEach(item -> missing.remove(item.getId()));
 
-        // For delete to work as expected, we need to subscribe() for the flow to complete
-        catalogueRepository.delete(catalogueItem).subscribe();
+        return new ResourceNotFoundException(
+            String.format("Catalogue Items not found for the provided ids :: %s", missing));
     }
 
     private Mono<CatalogueItem> getCatalogueItemById(Long id) throws ResourceNotFoundException {
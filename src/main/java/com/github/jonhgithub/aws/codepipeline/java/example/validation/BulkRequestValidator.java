@@ -0,0 +1,76 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.validation;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkDeleteRequest;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkUpdateRequest;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * Validator for bulk update and delete requests: exactly one of ids or category selects the items, and an
+ * update patch changes at least one field.
+ *
+ * @author Jon Harvey
+ */
+@Component
+public class BulkRequestValidator implements Validator {
+
+    static final int MAX_IDS = 100_000;
+
+    static final String SELECTOR_MESSAGE = "Either ids or category must be provided";
+    static final String NULL_ID_MESSAGE = "Ids must not contain null";
+    static final String MAX_IDS_MESSAGE = "At most " + MAX_IDS + " ids can be provided";
+    static final String PATCH_MESSAGE = "Patch must change price, inventory or category";
+    static final String CATEGORY_MESSAGE = "Invalid category provided";
+
+    private final CatalogueItemValidator catalogueItemValidator;
+
+    public BulkRequestValidator(CatalogueItemValidator catalogueItemValidator) {
+        this.catalogueItemValidator = catalogueItemValidator;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return BulkUpdateRequest.class.isAssignableFrom(clazz) || BulkDeleteRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (target instanceof BulkUpdateRequest) {
+            BulkUpdateRequest request = (BulkUpdateRequest) target;
+            validateSelector(request.getIds(), request.getCategory(), errors);
+            validatePatch(request.getPatch(), errors);
+        }
+        else {
+            BulkDeleteRequest request = (BulkDeleteRequest) target;
+            validateSelector(request.getIds(), request.getCategory(), errors);
+        }
+    }
+
+    private void validateSelector(List<Long> ids, String category, Errors errors) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (hasIds == (category != null)) {
+            errors.reject("Selector", SELECTOR_MESSAGE);
+        }
+        else if (hasIds && ids.size() > MAX_IDS) {
+            errors.rejectValue("ids", "Size", MAX_IDS_MESSAGE);
+        }
+        else if (hasIds && ids.contains(null)) {
+            errors.rejectValue("ids", "NotNull", NULL_ID_MESSAGE);
+        }
+        else if (!hasIds && !catalogueItemValidator.isValidCategory(category)) {
+            errors.rejectValue("category", "IEnumValidator", CATEGORY_MESSAGE);
+        }
+    }
+
+    private void validatePatch(CatalogueItemPatch patch, Errors errors) {
+        if (patch == null || (patch.getPrice() == null && patch.getInventory() == null && patch.getCategory() == null)) {
+            errors.rejectValue("patch", "NotEmpty", PATCH_MESSAGE);
+        }
+        else if (patch.getCategory() != null && !catalogueItemValidator.isValidCategory(patch.getCategory())) {
+            errors.rejectValue("patch.category", "IEnumValidator", CATEGORY_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.validation;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.Constraint;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * Straight-line validator for CatalogueItem, used in place of Bean Validation on the request path.
+ *
+ * Bean Validation discovers the constraints of CatalogueItem reflectively and builds a constraint violation
+ * for every check. This validator performs the same checks as plain code. The messages and enum constants are
+ * read from the constraint annotations once, so the annotations on CatalogueItem remain the single source of
+ * the rules and the messages returned by ExceptionHandlerController do not change.
+ *
+ * The checks themselves are code, so loading this class fails if CatalogueItem declares any constraint other than
+ * the ones in CONSTRAINTS, e.g. a new @Size or a validation group, instead of silently skipping it.
+ *
+ * @author Jon Harvey
+ */
+@Component
+public class CatalogueItemValidator implements Validator {
+
+    /**
+     * Field name to the constraint validate implements for it.
+     */
+    static final Map<String, Class<? extends Annotation>> CONSTRAINTS = Map.of(
+        "name", NotEmpty.class,
+        "description", NotEmpty.class,
+        "category", IEnumValidator.class,
+        "price", NotNull.class,
+        "inventory", NotNull.class);
+
+    static {
+        checkConstraints(CatalogueItem.class, CONSTRAINTS);
+    }
+
+    private static final String NAME_MESSAGE = message("name", NotEmpty.class);
+    private static final String DESCRIPTION_MESSAGE = message("description", NotEmpty.class);
+    private static final String CATEGORY_MESSAGE = message("category", IEnumValidator.class);
+    private static final String PRICE_MESSAGE = message("price", NotNull.class);
+    private static final String INVENTORY_MESSAGE = message("inventory", NotNull.class);
+
+    private static final String[] CATEGORIES = EnumValidator.names(
+        annotation("category", IEnumValidator.class).enumClazz());
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return CatalogueItem.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        CatalogueItem item = (CatalogueItem) target;
+
+        if (isEmpty(item.getName())) {
+            errors.rejectValue("name", "NotEmpty", NAME_MESSAGE);
+        }
+        if (isEmpty(item.getDescription())) {
+            errors.rejectValue("description", "NotEmpty", DESCRIPTION_MESSAGE);
+        }
+        if (!isValidCategory(item.getCategory())) {
+            errors.rejectValue("category", "IEnumValidator", CATEGORY_MESSAGE);
+        }
+        if (item.getPrice() == null) {
+            errors.rejectValue("price", "NotNull", PRICE_MESSAGE);
+        }
+        if (item.getInventory() == null) {
+            errors.rejectValue("inventory", "NotNull", INVENTORY_MESSAGE);
+        }
+    }
+
+    /**
+     * Same check as EnumValidator for the category field, usable without an Errors instance.
+     *
+     * @param category
+     * @return true if category is one of the Category constants
+     */
+    public boolean isValidCategory(String category) {
+        return !isEmpty(category) && EnumValidator.contains(CATEGORIES, category);
+    }
+
+    /**
+     * @throws IllegalStateException unless the constraints declared on type are exactly the given ones, each
+     * without groups
+     */
+    static void checkConstraints(Class<?> type, Map<String, Class<? extends Annotation>> constraints) {
+        List<String> unsupported = new ArrayList<>();
+        for (Annotation annotation : type.getAnnotations()) {
+            if (isConstraint(annotation)) {
+                unsupported.add("@" + annotation.annotationType().getSimpleName() + " on the class");
+            }
+        }
+        Set<String> found = new HashSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            for (Annotation annotation : field.getAnnotations()) {
+                if (!isConstraint(annotation)) {
+                    continue;
+                }
+                Class<? extends Annotation> annotationType = annotation.annotationType();
+                if (annotationType != constraints.get(field.getName()) || !found.add(field.getName())
+                    || attribute(annotation, "groups").length > 0) {
+                    unsupported.add("@" + annotationType.getSimpleName() + " on " + field.getName());
+                }
+            }
+        }
+        for (String field : constraints.keySet()) {
+            if (!found.contains(field)) {
+                unsupported.add("missing @" + constraints.get(field).getSimpleName() + " on " + field);
+            }
+        }
+        if (!unsupported.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                "CatalogueItemValidator does not implement the constraints of %s: %s", type.getSimpleName(),
+                unsupported));
+        }
+    }
+
+    /**
+     * Constraint annotations and the containers of repeated ones, e.g. @NotNull.List.
+     */
+    private static boolean isConstraint(Annotation annotation) {
+        Class<? extends Annotation> annotationType = annotation.annotationType();
+        if (annotationType.isAnnotationPresent(Constraint.class)) {
+            return true;
+        }
+        try {
+            Method value = annotationType.getMethod("value");
+            return value.getReturnType().isArray()
+                && value.getReturnType().getComponentType().isAnnotationPresent(Constraint.class);
+        }
+        catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    private static Object[] attribute(Annotation annotation, String name) {
+        try {
+            return (Object[]) annotation.annotationType().getMethod(name).invoke(annotation);
+        }
+        catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot read " + name + " of " + annotation, ex);
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static String message(String field, Class<? extends Annotation> constraint) {
+        try {
+            return (String) constraint.getMethod("message").invoke(annotation(field, constraint));
+        }
+        catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot read message of " + constraint.getSimpleName(), ex);
+        }
+    }
+
+    private static <A extends Annotation> A annotation(String field, Class<A> constraint) {
+        try {
+            A annotation = CatalogueItem.class.getDeclaredField(field).getAnnotation(constraint);
+            if (annotation == null) {
+                throw new IllegalStateException(
+                    String.format("CatalogueItem.%s is not annotated with %s", field, constraint.getSimpleName()));
+            }
+            return annotation;
+        }
+        catch (NoSuchFieldException ex) {
+            throw new IllegalStateException("CatalogueItem has no field " + field, ex);
+        }
+    }
+}
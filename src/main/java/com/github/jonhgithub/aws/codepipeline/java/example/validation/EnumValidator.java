@@ -1,30 +1,53 @@
 package com.github.jonhgithub.aws.codepipeline.java.example.validation;
 
-import java.util.ArrayList;
-import java.util.List;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import org.springframework.util.StringUtils;
 
 public class EnumValidator implements ConstraintValidator<IEnumValidator, String> {
 
-    List<String> valueList = null;
+    String[] valueList = null;
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext constraintValidatorContext) {
-        return !StringUtils.isEmpty(value) && valueList.contains(value.toUpperCase());
+        return !StringUtils.isEmpty(value) && contains(valueList, value);
     }
 
     @Override
     public void initialize(IEnumValidator constraintAnnotation) {
-        valueList = new ArrayList<>();
-        Class<? extends Enum<?>> enumClass = constraintAnnotation.enumClazz();
+        valueList = names(constraintAnnotation.enumClazz());
+    }
 
+    /**
+     * Enum constant names, compared case insensitively by contains() instead of upper casing every input.
+     *
+     * @param enumClass
+     * @return names
+     */
+    static String[] names(Class<? extends Enum<?>> enumClass) {
         @SuppressWarnings("rawtypes")
         Enum[] enumValArr = enumClass.getEnumConstants();
 
-        for (@SuppressWarnings("rawtypes") Enum enumVal : enumValArr) {
-            valueList.add(enumVal.toString().toUpperCase());
+        String[] names = new String[enumValArr.length];
+        for (int i = 0; i < enumValArr.length; i++) {
+            names[i] = enumValArr[i].toString();
+        }
+        return names;
+    }
+
+    /**
+     * Case insensitive membership check which does not allocate.
+     *
+     * @param names
+     * @param value
+     * @return true if value matches one of the names
+     */
+    static boolean contains(String[] names, String value) {
+        for (String name : names) {
+            if (name.equalsIgnoreCase(value)) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -0,0 +1,69 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 200, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() > 20);
+
+        // Not growing while the limit is not used
+        int before = limit.getLimit();
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, 1);
+        }
+        assertEquals(before, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 2, 200, 1000);
+        limit.onSample(RTT, 1);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT * 4, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() < 50);
+    }
+
+    @Test
+    public void testDropsBackOffWithinBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 200, 1000);
+
+        limit.onDrop();
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDrop();
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void testAcquireRespectsShare() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 4, 4, 1000);
+
+        assertEquals(1, limit.tryAcquire(0.5));
+        assertEquals(2, limit.tryAcquire(0.5));
+        assertEquals(0, limit.tryAcquire(0.5));
+        assertEquals(3, limit.tryAcquire(1.0));
+        assertEquals(4, limit.tryAcquire(1.0));
+        assertEquals(0, limit.tryAcquire(1.0));
+
+        limit.release();
+        assertEquals(3, limit.getInFlight());
+        assertEquals(4, limit.tryAcquire(1.0));
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testRejectsOverEndpointLimit() {
+        AdmissionControlFilter filter = filter(100, 2);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        WebFilterChain chain = exchange -> pending.asMono();
+
+        MockServerWebExchange first = get("/api/v1/1");
+        MockServerWebExchange second = get("/api/v1/2");
+        MockServerWebExchange third = get("/api/v1/3");
+        filter.filter(first, chain).subscribe();
+        filter.filter(second, chain).subscribe();
+        filter.filter(third, chain).block();
+
+        assertNull(first.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+        assertEquals("1", third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(third.getResponse().getBodyAsString().block().contains("\"code\":429"));
+        assertEquals(1.0, meterRegistry.get("catalogue.admission.rejected").tag("endpoint", "GET /api/v1/{id}")
+            .counter().count());
+
+        pending.tryEmitEmpty();
+        MockServerWebExchange fourth = get("/api/v1/4");
+        filter.filter(fourth, exchange -> Mono.empty()).block();
+        assertNull(fourth.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testScansAreShedBeforeSingleItemReads() {
+        AdmissionControlFilter filter = filter(4, 100);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        WebFilterChain chain = exchange -> pending.asMono();
+
+        filter.filter(get("/api/v1/"), chain).subscribe();
+        filter.filter(get("/api/v1/stream"), chain).subscribe();
+
+        MockServerWebExchange scan = get("/api/v1/");
+        filter.filter(scan, chain).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, scan.getResponse().getStatusCode());
+
+        MockServerWebExchange item = get("/api/v1/7");
+        filter.filter(item, chain).subscribe();
+        assertNull(item.getResponse().getStatusCode());
+        assertEquals(3.0, meterRegistry.get("catalogue.admission.inflight").tag("endpoint", AdmissionControlFilter.GLOBAL)
+            .gauge().value());
+    }
+
+    @Test
+    public void testOverload() {
+        AdmissionControlFilter filter = filter(16, 8);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        WebFilterChain chain = exchange -> Mono.delay(Duration.ofMillis(100))
+            .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+            .doFinally(signal -> inFlight.decrementAndGet())
+            .then();
+
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 200)
+            .mapToObj(index -> get(index % 2 == 0 ? "/api/v1/" + index : "/api/v1/"))
+            .collect(Collectors.toList());
+
+        Map<HttpStatus, Integer> statuses = new HashMap<>();
+        Flux.fromIterable(exchanges)
+            .flatMap(exchange -> filter.filter(exchange, chain).thenReturn(exchange), exchanges.size())
+            .toStream()
+            .forEach(exchange -> statuses.merge(
+                exchange.getResponse().getStatusCode() == null ? HttpStatus.OK : exchange.getResponse().getStatusCode(),
+                1, Integer::sum));
+
+        int rejected = statuses.getOrDefault(HttpStatus.TOO_MANY_REQUESTS, 0);
+        assertTrue(rejected > 0);
+        assertEquals(200, rejected + statuses.getOrDefault(HttpStatus.OK, 0));
+        assertTrue(maxInFlight.get() <= 16);
+        assertEquals(rejected, meterRegistry.get("catalogue.admission.rejected").counters().stream()
+            .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    public void testGlobalLimitDoesNotCollapseUnderMixedLatencies() {
+        AtomicLong clock = new AtomicLong();
+        AdmissionControlFilter filter = new AdmissionControlFilter("/api/", 100,
+            () -> new AdaptiveConcurrencyLimit(20, 2, 200, 1000), new HashMap<>(), Duration.ofSeconds(1),
+            meterRegistry, clock::get);
+        // Single item reads take microseconds, list scans tens of milliseconds, on a clock the requests advance
+        WebFilterChain chain = exchange -> Mono.fromRunnable(() -> clock.addAndGet(
+            exchange.getRequest().getPath().value().equals("/api/v1/")
+                ? TimeUnit.MILLISECONDS.toNanos(30)
+                : TimeUnit.MICROSECONDS.toNanos(10)));
+
+        Flux.range(0, 300)
+            .concatMap(index -> filter.filter(get(index % 5 == 0 ? "/api/v1/" : "/api/v1/" + index), chain))
+            .blockLast();
+
+        // Fed with both, the global limit would take the read latency as no load and shrink on every scan
+        assertEquals(100.0, limitGauge(AdmissionControlFilter.GLOBAL));
+        assertEquals(20.0, limitGauge("GET /api/v1/"));
+    }
+
+    @Test
+    public void testOtherPathsAreNotControlled() {
+        AdmissionControlFilter filter = filter(1, 1);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        filter.filter(get("/actuator/health"), exchange -> pending.asMono()).subscribe();
+
+        MockServerWebExchange health = get("/actuator/health");
+        filter.filter(health, exchange -> Mono.empty()).block();
+        assertNull(health.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("/api/v1/{id}", AdmissionControlFilter.normalize("/api/v1/42"));
+        assertEquals("/api/v1/{id}", AdmissionControlFilter.normalize("/api/v1/-1"));
+        assertEquals("/api/v1/", AdmissionControlFilter.normalize("/api/v1/"));
+        assertEquals("/api/v1/stream", AdmissionControlFilter.normalize("/api/v1/stream"));
+    }
+
+    /**
+     * Fixed limits, so the test does not depend on latency.
+     */
+    private AdmissionControlFilter filter(int global, int endpoint) {
+        Map<Priority, Double> shares = new HashMap<>();
+        shares.put(Priority.BULK, 0.5);
+
+        return new AdmissionControlFilter("/api/", global,
+            () -> new AdaptiveConcurrencyLimit(endpoint, endpoint, endpoint, 1000), shares, Duration.ofSeconds(1),
+            meterRegistry);
+    }
+
+    private double limitGauge(String endpoint) {
+        return meterRegistry.get("catalogue.admission.limit").tag("endpoint", endpoint).gauge().value();
+    }
+
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * Response formats of the list endpoint for a page of items: server encode time with the encoders registered
+ * by CodecConfiguration, and client decode time, with Jackson for JSON, CBOR and Smile as other services use it.
+ * Payload sizes are printed once at setup, before compression.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="CatalogueFormatBenchmark -prof gc", or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueFormatBenchmark {
+
+    private static final int ITEMS = 100;
+    private static final ResolvableType TYPE = ResolvableType.forClass(CatalogueItem.class);
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /**
+     * The benchmark runs without logging configuration, the Jackson encoders would log each value at debug level.
+     */
+    private static final Map<String, Object> HINTS = Hints.from(Hints.SUPPRESS_LOGGING_HINT, true);
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final CatalogueItemEncoder jsonEncoder = new CatalogueItemEncoder();
+    private final CatalogueItemBinaryEncoder binaryEncoder = new CatalogueItemBinaryEncoder();
+    private final CatalogueItemBinaryDecoder binaryDecoder = new CatalogueItemBinaryDecoder();
+
+    private StreamingCborEncoder cborEncoder;
+    private Jackson2SmileEncoder smileEncoder;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    private List<CatalogueItem> items;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        // Same features as the mappers CodecConfiguration builds from application.yml
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToEnable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+        jsonMapper = builder.build();
+        cborMapper = builder.factory(new CBORFactory()).build();
+        smileMapper = builder.factory(new SmileFactory()).build();
+        cborEncoder = new StreamingCborEncoder(cborMapper);
+        smileEncoder = new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE);
+
+        items = IntStream.rangeClosed(1, ITEMS).mapToObj(CatalogueFormatBenchmark::item).collect(Collectors.toList());
+        json = bytes(jsonEncoder, MediaType.APPLICATION_JSON);
+        cbor = bytes(cborEncoder, MediaType.APPLICATION_CBOR);
+        smile = bytes(smileEncoder, APPLICATION_SMILE);
+        binary = bytes(binaryEncoder, CatalogueItemBinaryEncoder.MIME_TYPE);
+        System.out.printf("Payload bytes for %d items: json %d, cbor %d, smile %d, binary %d%n", ITEMS, json.length,
+            cbor.length, smile.length, binary.length);
+    }
+
+    @Benchmark
+    public int encodeJson() {
+        return encode(jsonEncoder, MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int encodeCbor() {
+        return encode(cborEncoder, MediaType.APPLICATION_CBOR);
+    }
+
+    @Benchmark
+    public int encodeSmile() {
+        return encode(smileEncoder, APPLICATION_SMILE);
+    }
+
+    @Benchmark
+    public int encodeBinary() {
+        return encode(binaryEncoder, CatalogueItemBinaryEncoder.MIME_TYPE);
+    }
+
+    @Benchmark
+    public CatalogueItem[] decodeJson() throws Exception {
+        return jsonMapper.readValue(json, CatalogueItem[].class);
+    }
+
+    @Benchmark
+    public CatalogueItem[] decodeCbor() throws Exception {
+        return cborMapper.readValue(cbor, CatalogueItem[].class);
+    }
+
+    @Benchmark
+    public CatalogueItem[] decodeSmile() throws Exception {
+        return smileMapper.readValue(smile, CatalogueItem[].class);
+    }
+
+    @Benchmark
+    public List<CatalogueItem> decodeBinary() {
+        return binaryDecoder.decode(Flux.just(bufferFactory.wrap(binary)), TYPE, null, null).collectList().block();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private int encode(Encoder encoder, MimeType mimeType) {
+        int[] size = {0};
+        Flux<DataBuffer> buffers = encoder.encode(Flux.fromIterable(items), bufferFactory, TYPE, mimeType, HINTS);
+        buffers.doOnNext(buffer -> {
+                size[0] += buffer.readableByteCount();
+                DataBufferUtils.release(buffer);
+            })
+            .blockLast();
+        return size[0];
+    }
+
+    private byte[] bytes(Encoder<?> encoder, MimeType mimeType) {
+        @SuppressWarnings("unchecked")
+        Flux<DataBuffer> buffers = ((Encoder<CatalogueItem>) encoder)
+            .encode(Flux.fromIterable(items), bufferFactory, TYPE, mimeType, HINTS);
+        DataBuffer buffer = DataBufferUtils.join(buffers).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static CatalogueItem item(int index) {
+        CatalogueItem item = new CatalogueItem();
+        item.setId((long) index);
+        item.setName(String.format("ITEM %04d", index));
+        item.setDescription(String.format("ITEM DESC %04d", index));
+        item.setCategory(index % 2 == 0 ? "Books" : "Games");
+        item.setPrice(index + 0.99);
+        item.setInventory(index * 10);
+        item.setCreatedOn(Instant.ofEpochSecond(1_600_000_000L + index, 123_000_000));
+        return item;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CatalogueFormatBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+public class CatalogueItemBinaryCodecTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(CatalogueItem.class);
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final CatalogueItemBinaryEncoder encoder = new CatalogueItemBinaryEncoder();
+    private final CatalogueItemBinaryDecoder decoder = new CatalogueItemBinaryDecoder();
+
+    @Test
+    public void testRoundTrip() {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setName("Café \"quoted\" 😀");
+        item.setPrice(-12.5e-7);
+        item.setInventory(Integer.MIN_VALUE);
+        item.setCreatedOn(Instant.parse("-0001-12-31T00:00:00.123456789Z"));
+        item.setUpdatedOn(Instant.ofEpochSecond(1_600_000_000L));
+
+        DataBuffer buffer = encoder.encodeValue(item, bufferFactory, TYPE, CatalogueItemBinaryEncoder.MIME_TYPE, null);
+
+        assertEquals(CatalogueItemBinaryEncoder.HEADER_SIZE + 19 + 9, buffer.readableByteCount());
+        assertEquals(item, decoder.decode(buffer, TYPE, null, null));
+    }
+
+    @Test
+    public void testRoundTripAbsentFieldsAndOtherCategorySpelling() {
+        CatalogueItem item = new CatalogueItem();
+        item.setName("");
+        item.setCategory("BOOKS");
+
+        CatalogueItem decoded = decoder.decode(
+            encoder.encodeValue(item, bufferFactory, TYPE, CatalogueItemBinaryEncoder.MIME_TYPE, null), TYPE, null, null);
+
+        assertEquals(item, decoded);
+        assertEquals("BOOKS", decoded.getCategory());
+        assertNull(decoded.getId());
+        assertNull(decoded.getDescription());
+        assertNull(decoded.getCreatedOn());
+    }
+
+    /**
+     * Records are written one buffer per item and may reach the decoder split anywhere.
+     */
+    @Test
+    public void testDecodeFluxSplitAcrossBuffers() {
+        List<CatalogueItem> items = CatalogueItemGenerator.generateCatalogueItemsList();
+        byte[] bytes = toBytes(encoder.encode(Flux.fromIterable(items), bufferFactory, TYPE,
+            CatalogueItemBinaryEncoder.MIME_TYPE, null));
+
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += 7) {
+            chunks.add(bufferFactory.wrap(Arrays.copyOfRange(bytes, start, Math.min(start + 7, bytes.length))));
+        }
+
+        assertEquals(items, decoder.decode(Flux.fromIterable(chunks), TYPE, null, null).collectList().block());
+        assertEquals(List.of(), decoder.decode(Flux.empty(), TYPE, null, null).collectList().block());
+    }
+
+    @Test
+    public void testDecodeInvalidRecords() {
+        byte[] bytes = toBytes(encoder.encode(Flux.just(CatalogueItemGenerator.generateCatalogueItem()), bufferFactory,
+            TYPE, CatalogueItemBinaryEncoder.MIME_TYPE, null));
+
+        assertThrows(DecodingException.class,
+            () -> decoder.decode(bufferFactory.wrap(Arrays.copyOf(bytes, 10)), TYPE, null, null));
+        assertThrows(DecodingException.class,
+            () -> decoder.decode(bufferFactory.wrap(Arrays.copyOf(bytes, bytes.length - 1)), TYPE, null, null));
+
+        byte[] unknownCategory = bytes.clone();
+        unknownCategory[45] = (byte) 0xFE;
+        assertThrows(DecodingException.class,
+            () -> decoder.decode(bufferFactory.wrap(unknownCategory), TYPE, null, null));
+
+        byte[] twoItems = new byte[bytes.length * 2];
+        System.arraycopy(bytes, 0, twoItems, 0, bytes.length);
+        System.arraycopy(bytes, 0, twoItems, bytes.length, bytes.length);
+        assertThrows(DecodingException.class,
+            () -> decoder.decode(bufferFactory.wrap(twoItems), TYPE, null, null));
+    }
+
+    @Test
+    public void testEncodeRejectsOversizedString() {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setDescription("x".repeat(0xFFFF));
+
+        assertThrows(EncodingException.class,
+            () -> encoder.encodeValue(item, bufferFactory, TYPE, CatalogueItemBinaryEncoder.MIME_TYPE, null));
+    }
+
+    private static byte[] toBytes(Flux<DataBuffer> buffers) {
+        DataBuffer buffer = DataBufferUtils.join(buffers).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks the dedicated CatalogueItem codec against the output and input of the ObjectMapper Spring Boot
+ * configures from application.yml, which is the one the other codecs use.
+ */
+@JsonTest
+public class CatalogueItemCodecTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(CatalogueItem.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final CatalogueItemEncoder encoder = new CatalogueItemEncoder();
+    private final CatalogueItemDecoder decoder = new CatalogueItemDecoder();
+
+    @Test
+    public void testEncodeMatchesJackson() throws Exception {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setName("Café \"quoted\" \\ \n \u0001 😀");
+        item.setPrice(12.5e-7);
+        item.setUpdatedOn(Instant.ofEpochSecond(1_600_000_000L));
+
+        DataBuffer buffer = encoder.encodeValue(item, bufferFactory, TYPE, MediaType.APPLICATION_JSON, null);
+
+        assertEquals(objectMapper.writeValueAsString(item), toString(buffer));
+    }
+
+    @Test
+    public void testEncodeInstantsMatchJackson() throws Exception {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        List<Instant> instants = List.of(
+            Instant.EPOCH,
+            Instant.ofEpochSecond(1_600_000_000L),
+            Instant.ofEpochSecond(1_600_000_000L, 120_000_000),
+            Instant.ofEpochSecond(1_600_000_000L, 123_456_000),
+            Instant.ofEpochSecond(1_600_000_000L, 123_456_789),
+            Instant.ofEpochSecond(-1, 1),
+            Instant.parse("2000-02-29T23:59:59.999Z"),
+            Instant.parse("0000-01-01T00:00:00Z"),
+            Instant.parse("9999-12-31T23:59:59.999999999Z"),
+            Instant.parse("+10000-01-01T00:00:00Z"),
+            Instant.parse("-0001-12-31T00:00:00Z"));
+
+        for (Instant instant : instants) {
+            item.setCreatedOn(instant);
+            DataBuffer buffer = encoder.encodeValue(item, bufferFactory, TYPE, MediaType.APPLICATION_JSON, null);
+
+            assertEquals(objectMapper.writeValueAsString(item), toString(buffer));
+            assertEquals(item, decoder.decode(toBuffer(objectMapper.writeValueAsString(item)), TYPE, null, null));
+        }
+    }
+
+    @Test
+    public void testEncodeFluxAsArray() throws Exception {
+        List<CatalogueItem> items = CatalogueItemGenerator.generateCatalogueItemsList();
+
+        String json = DataBufferUtils.join(
+                encoder.encode(Flux.fromIterable(items), bufferFactory, TYPE, MediaType.APPLICATION_JSON, null))
+            .map(this::toString)
+            .block();
+
+        assertEquals(objectMapper.writeValueAsString(items), json);
+        assertEquals("[]", DataBufferUtils.join(
+                encoder.encode(Flux.empty(), bufferFactory, TYPE, MediaType.APPLICATION_JSON, null))
+            .map(this::toString)
+            .block());
+    }
+
+    @Test
+    public void testDecodeJacksonOutput() throws Exception {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setDescription("Multi ünicode 😀 and \"escapes\"");
+
+        CatalogueItem decoded = decoder.decode(toBuffer(objectMapper.writeValueAsString(item)), TYPE, null, null);
+
+        assertEquals(item, decoded);
+    }
+
+    @Test
+    public void testDecodeLenientInput() {
+        String json = " { \"unknown\" : {\"nested\": [1, \"}\", null]}, \"name\":\"Item\", \"price\": \"10.5\","
+            + " \"inventory\": 3.0, \"createdOn\": \"2021-06-01T10:15:30Z\", \"updatedOn\": null, \"id\": 7 } ";
+
+        CatalogueItem decoded = decoder.decode(toBuffer(json), TYPE, null, null);
+
+        assertEquals(7L, decoded.getId());
+        assertEquals("Item", decoded.getName());
+        assertEquals(10.5, decoded.getPrice());
+        assertEquals(3, decoded.getInventory());
+        assertEquals(Instant.parse("2021-06-01T10:15:30Z"), decoded.getCreatedOn());
+        assertNull(decoded.getUpdatedOn());
+        assertNull(decoded.getDescription());
+    }
+
+    @Test
+    public void testDecodeIsoInstantsLikeInstantParse() {
+        for (String text : List.of("2000-02-29T12:00:00Z", "1969-12-31T23:59:59.5Z", "2021-06-01T10:15:30.123456789Z",
+            "2016-12-31T23:59:60Z", "2021-05-31T24:00:00Z", "2021-06-01T10:15:30.Z",
+            "0000-03-01T00:00:00Z", " 2021-06-01T10:15:30Z ")) {
+            CatalogueItem decoded = decoder.decode(toBuffer("{\"createdOn\": \"" + text + "\"}"), TYPE, null, null);
+
+            assertEquals(Instant.parse(text.trim()), decoded.getCreatedOn());
+        }
+        for (String text : List.of("2021-02-29T00:00:00Z", "2021-06-01T25:00:00Z",
+            "2021-06-01T10:15:30.1234567891Z", "2021-06-01T10:15:30")) {
+            assertThrows(DecodingException.class,
+                () -> decoder.decode(toBuffer("{\"createdOn\": \"" + text + "\"}"), TYPE, null, null));
+        }
+    }
+
+    @Test
+    public void testDecodeArray() throws Exception {
+        List<CatalogueItem> items = CatalogueItemGenerator.generateCatalogueItemsList();
+
+        List<CatalogueItem> decoded = decoder
+            .decode(Mono.just(toBuffer(objectMapper.writeValueAsString(items))), TYPE, null, null)
+            .collectList()
+            .block();
+
+        assertEquals(items, decoded);
+        assertEquals(Collections.emptyList(),
+            decoder.decode(Mono.just(toBuffer("[ ]")), TYPE, null, null).collectList().block());
+    }
+
+    @Test
+    public void testDecodeLongBounds() {
+        assertEquals(Long.MAX_VALUE, decoder.decode(toBuffer("{\"id\": 9223372036854775807}"), TYPE, null, null).getId());
+        assertEquals(Long.MIN_VALUE, decoder.decode(toBuffer("{\"id\": -9223372036854775808}"), TYPE, null, null).getId());
+        assertEquals(Long.MAX_VALUE - 1,
+            decoder.decode(toBuffer("{\"id\": 9223372036854775806}"), TYPE, null, null).getId());
+
+        for (String value : List.of("9223372036854775808", "-9223372036854775809", "92233720368547758070",
+            "9223372036854775808.0", "1e19")) {
+            assertThrows(DecodingException.class,
+                () -> decoder.decode(toBuffer("{\"id\": " + value + "}"), TYPE, null, null));
+        }
+    }
+
+    @Test
+    public void testDecodeInvalidInput() {
+        assertThrows(DecodingException.class, () -> decoder.decode(toBuffer("{\"name\": null}"), TYPE, null, null));
+        assertThrows(DecodingException.class, () -> decoder.decode(toBuffer("{\"price\": abc}"), TYPE, null, null));
+        assertThrows(DecodingException.class, () -> decoder.decode(toBuffer("{\"name\": \"Item"), TYPE, null, null));
+    }
+
+    private DataBuffer toBuffer(String value) {
+        return bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toString(DataBuffer buffer) {
+        String value = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return value;
+    }
+}
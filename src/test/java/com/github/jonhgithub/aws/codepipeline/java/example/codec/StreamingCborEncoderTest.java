@@ -0,0 +1,70 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class StreamingCborEncoderTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(CatalogueItem.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final StreamingCborEncoder encoder = new StreamingCborEncoder(objectMapper);
+
+    @Test
+    public void testEncodeFluxAsIndefiniteLengthArray() throws Exception {
+        List<CatalogueItem> items = CatalogueItemGenerator.generateCatalogueItemsList();
+
+        Flux<DataBuffer> buffers = encoder.encode(Flux.fromIterable(items), bufferFactory, TYPE,
+            MediaType.APPLICATION_CBOR, null);
+
+        // Array head and first item, one buffer per other item, then the break
+        StepVerifier.create(buffers.map(this::release))
+            .expectNext(1)
+            .expectNextCount(items.size())
+            .expectNext(1)
+            .verifyComplete();
+
+        byte[] bytes = toBytes(encoder.encode(Flux.fromIterable(items), bufferFactory, TYPE,
+            MediaType.APPLICATION_CBOR, null));
+        assertEquals((byte) 0x9F, bytes[0]);
+        assertEquals((byte) 0xFF, bytes[bytes.length - 1]);
+        assertEquals(items, List.of(objectMapper.readValue(bytes, CatalogueItem[].class)));
+    }
+
+    @Test
+    public void testEncodeEmptyFlux() throws Exception {
+        byte[] bytes = toBytes(encoder.encode(Flux.empty(), bufferFactory, TYPE, MediaType.APPLICATION_CBOR, null));
+
+        assertArrayEquals(new byte[] {(byte) 0x9F, (byte) 0xFF}, bytes);
+        assertEquals(0, objectMapper.readValue(bytes, CatalogueItem[].class).length);
+    }
+
+    private int release(DataBuffer buffer) {
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private static byte[] toBytes(Flux<DataBuffer> buffers) {
+        DataBuffer buffer = DataBufferUtils.join(buffers).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
@@ -1,9 +1,22 @@
 package com.github.jonhgithub.aws.codepipeline.java.example.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
 import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.codec.CatalogueItemBinaryDecoder;
+import com.github.jonhgithub.aws.codepipeline.java.example.configuration.CodecConfiguration;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkDeleteRequest;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.BulkUpdateRequest;
 import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
 import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import java.util.Arrays;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -68,6 +81,80 @@ public class CatalogueControllerTest {
             .jsonPath("$.[0].description").isNotEmpty();
     }
 
+    /**
+     * Test method to validate catalogue items are returned as CBOR when requested
+     */
+    @Test
+    @Order(11)
+    public void testGetAllCatalogueItemsAsCbor() throws Exception {
+
+        byte[] body = this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS)
+            .accept(MediaType.APPLICATION_CBOR)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+
+        CatalogueItem[] items = new ObjectMapper(new CBORFactory())
+            .findAndRegisterModules()
+            .readValue(body, CatalogueItem[].class);
+        assertFalse(items.length == 0);
+    }
+
+    /**
+     * Test method to validate catalogue items are returned as Smile when requested
+     */
+    @Test
+    @Order(12)
+    public void testGetAllCatalogueItemsAsSmile() {
+
+        this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS)
+            .accept(CodecConfiguration.APPLICATION_SMILE)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(CodecConfiguration.APPLICATION_SMILE)
+            .expectBodyList(CatalogueItem.class)
+            .value(items -> assertFalse(items.isEmpty()));
+    }
+
+    /**
+     * Test method to validate catalogue items are returned as binary records when requested, with the same
+     * content as in JSON
+     */
+    @Test
+    @Order(13)
+    public void testGetAllCatalogueItemsAsCatalogueItemRecords() {
+
+        List<CatalogueItem> json = this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(CatalogueItem.class)
+            .returnResult()
+            .getResponseBody();
+
+        this.client
+            .mutate()
+            .codecs(configurer -> configurer.customCodecs().register(new CatalogueItemBinaryDecoder()))
+            .build()
+            .get()
+            .uri(CatalogueController.GET_ITEMS)
+            .accept(MediaType.valueOf(CodecConfiguration.APPLICATION_CATALOGUE_ITEM_VALUE))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(CodecConfiguration.APPLICATION_CATALOGUE_ITEM_VALUE)
+            .expectBodyList(CatalogueItem.class)
+            .isEqualTo(json);
+    }
+
     @Test
     @Order(20)
     public void testGetCatalogueItem() throws Exception {
@@ -110,6 +197,51 @@ public class CatalogueControllerTest {
             .verify();
     }
 
+    /**
+     * Test method to validate the stream is served to clients accepting anything, as curl does by default
+     */
+    @Test
+    @Order(31)
+    public void testGetCatalogueItemsStreamAcceptingAll() {
+
+        this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS_STREAM)
+            .accept(MediaType.ALL)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    @Test
+    @Order(32)
+    public void testGetCatalogueItemsStreamWithoutAccept() {
+
+        this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS_STREAM)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    /**
+     * Test method to validate JSON is the default representation of the catalogue
+     */
+    @Test
+    @Order(33)
+    public void testGetAllCatalogueItemsWithoutAccept() {
+
+        this.client
+            .get()
+            .uri(CatalogueController.GET_ITEMS)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[0].id").isNotEmpty();
+    }
+
     @Test
     @Order(40)
     public void testCreateCatalogueItem() {
@@ -150,6 +282,29 @@ public class CatalogueControllerTest {
             .uri(replaceId(CatalogueController.DELETE))
             .exchange()
             .expectStatus().isNoContent();
+
+        this.client
+            .get()
+            .uri(replaceId(CatalogueController.GET_ITEM))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    /**
+     * Test method to validate deleting an unknown item is reported rather than answered with no content
+     */
+    @Test
+    @Order(51)
+    public void testDeleteUnknownCatalogueItem() {
+
+        this.client
+            .delete()
+            .uri(CatalogueController.DELETE.replaceAll("\\{id\\}", "-1"))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON);
     }
 
     /**
@@ -188,6 +343,167 @@ public class CatalogueControllerTest {
             .expectHeader().contentType(MediaType.APPLICATION_JSON);
     }
 
+    /**
+     * Test method to validate a patch is applied to a set of ids and the affected count is returned
+     */
+    @Test
+    @Order(80)
+    public void testBulkUpdateCatalogueItems() {
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setPrice(1.5);
+        patch.setCategory("Music");
+
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setIds(Arrays.asList(1L, 2L, 3L, 3L, -5L));
+        request.setPatch(patch);
+
+        this.client
+            .patch()
+            .uri(CatalogueController.BULK_UPDATE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(request), BulkUpdateRequest.class)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.affected").isEqualTo(3);
+
+        this.client
+            .get()
+            .uri(CatalogueController.GET_ITEM.replaceAll("\\{id\\}", "2"))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.price").isEqualTo(1.5)
+            .jsonPath("$.category").isEqualTo("Music")
+            .jsonPath("$.updatedOn").isNotEmpty();
+    }
+
+    /**
+     * Test method to validate all items of a category are deleted and the affected count is returned
+     */
+    @Test
+    @Order(81)
+    public void testBulkDeleteCatalogueItemsByCategory() {
+        long books = catalogueCrudService.getCatalogueItems()
+            .filter(item -> item.getCategory().equals("Books"))
+            .count()
+            .block();
+
+        BulkDeleteRequest request = new BulkDeleteRequest();
+        request.setCategory("Books");
+
+        this.client
+            .post()
+            .uri(CatalogueController.BULK_DELETE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(request), BulkDeleteRequest.class)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.affected").isEqualTo((int) books);
+
+        assertEquals(0L, catalogueCrudService.getCatalogueItems()
+            .filter(item -> item.getCategory().equals("Books"))
+            .count()
+            .block());
+    }
+
+    /**
+     * Test method to validate bulk requests must select items by either ids or category
+     */
+    @Test
+    @Order(82)
+    public void testBulkDeleteWithInvalidSelector() {
+        BulkDeleteRequest request = new BulkDeleteRequest();
+        request.setIds(Arrays.asList(1L, 2L));
+        request.setCategory("Books");
+
+        this.client
+            .post()
+            .uri(CatalogueController.BULK_DELETE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(request), BulkDeleteRequest.class)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.errors[0].description").isEqualTo("Either ids or category must be provided");
+    }
+
+    /**
+     * Test method to validate a null entry in the ids of a bulk request is rejected with its own message
+     */
+    @Test
+    @Order(83)
+    public void testBulkUpdateWithNullId() {
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setPrice(1.5);
+
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setIds(Arrays.asList(1L, null));
+        request.setPatch(patch);
+
+        this.client
+            .patch()
+            .uri(CatalogueController.BULK_UPDATE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(request), BulkUpdateRequest.class)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.errors[0].description").isEqualTo("Ids must not contain null");
+    }
+
+    /**
+     * Test method to validate categories in any casing select and set the stored category value
+     */
+    @Test
+    @Order(84)
+    public void testBulkRequestsMatchCategoryInAnyCasing() {
+        long books = countInCategory("Books");
+        assertTrue(books > 0);
+
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setCategory("MUSIC");
+
+        BulkUpdateRequest update = new BulkUpdateRequest();
+        update.setCategory("books");
+        update.setPatch(patch);
+
+        this.client
+            .patch()
+            .uri(CatalogueController.BULK_UPDATE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(update), BulkUpdateRequest.class)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.affected").isEqualTo((int) books);
+
+        assertEquals(0L, countInCategory("Books"));
+        assertEquals(books, countInCategory("Music"));
+
+        BulkDeleteRequest delete = new BulkDeleteRequest();
+        delete.setCategory("mUsIc");
+
+        this.client
+            .post()
+            .uri(CatalogueController.BULK_DELETE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Mono.just(delete), BulkDeleteRequest.class)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.affected").isEqualTo((int) books);
+    }
+
+    private long countInCategory(String category) {
+        return catalogueCrudService.getCatalogueItems()
+            .filter(item -> item.getCategory().equals(category))
+            .count()
+            .block();
+    }
+
     private void createCatalogueItem() {
         CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
         item.setId(null);
@@ -0,0 +1,186 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import io.rsocket.exceptions.ApplicationErrorException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.rsocket.context.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(
+    classes = SpringReactiveRestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+public class CatalogueRSocketControllerTest {
+
+    private static final Queue<Throwable> droppedErrors = new ConcurrentLinkedQueue<>();
+
+    @LocalRSocketServerPort
+    int tcpPort;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private RSocketRequester.Builder builder;
+
+    private RSocketRequester tcp;
+    private RSocketRequester websocket;
+
+    /**
+     * rsocket-core drops a CancellationException of its own when a connection is disposed, and when a channel
+     * answers with an error after its inbound was cancelled. Those are expected, any other dropped error fails
+     * the test instead of only being logged.
+     */
+    @BeforeAll
+    public static void recordDroppedErrors() {
+        Hooks.onErrorDropped(error -> {
+            if (!(error instanceof CancellationException || error.getCause() instanceof CancellationException)) {
+                droppedErrors.add(error);
+            }
+        });
+    }
+
+    @AfterAll
+    public static void resetDroppedErrors() {
+        Hooks.resetOnErrorDropped();
+    }
+
+    @BeforeEach
+    public void connect() {
+        tcp = builder.tcp("localhost", tcpPort);
+        websocket = builder
+            .dataMimeType(MimeTypeUtils.APPLICATION_JSON)
+            .websocket(URI.create("ws://localhost:" + port + "/rsocket"));
+    }
+
+    @AfterEach
+    public void disconnect() {
+        tcp.dispose();
+        websocket.dispose();
+
+        List<Throwable> dropped = List.copyOf(droppedErrors);
+        droppedErrors.clear();
+        assertEquals(List.of(), dropped);
+    }
+
+    @Test
+    public void testGetCatalogueItem() {
+        for (RSocketRequester requester : List.of(tcp, websocket)) {
+            StepVerifier.create(requester.route(CatalogueRSocketController.GET_ITEM, 1L).retrieveMono(CatalogueItem.class))
+                .assertNext(item -> {
+                    assertEquals(1L, item.getId());
+                    assertEquals("ITEM 0001", item.getName());
+                })
+                .verifyComplete();
+        }
+    }
+
+    @Test
+    public void testGetCatalogueItemNotFound() {
+        StepVerifier.create(tcp.route(CatalogueRSocketController.GET_ITEM, 99_999_999L).retrieveMono(CatalogueItem.class))
+            .expectErrorSatisfies(ex -> {
+                assertTrue(ex instanceof ApplicationErrorException);
+                assertTrue(ex.getMessage().contains("99999999"));
+            })
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testGetCatalogueItemsFollowsDemand() {
+        for (RSocketRequester requester : List.of(tcp, websocket)) {
+            StepVerifier.create(requester.route(CatalogueRSocketController.GET_ITEMS).retrieveFlux(CatalogueItem.class), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(5)
+                .expectNextCount(5)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    public void testUpsertCatalogueItems() {
+        CatalogueItem existing = tcp.route(CatalogueRSocketController.GET_ITEM, 2L)
+            .retrieveMono(CatalogueItem.class)
+            .block();
+        existing.setName("Updated Over RSocket");
+
+        for (RSocketRequester requester : List.of(tcp, websocket)) {
+            List<Long> ids = requester.route(CatalogueRSocketController.UPSERT_ITEMS)
+                .data(Flux.just(newItem("First"), existing, newItem("Second")))
+                .retrieveFlux(Long.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+            assertEquals(3, ids.size());
+            assertEquals(2L, ids.get(1));
+            assertEquals("First", get(ids.get(0)).getName());
+            assertEquals("Second", get(ids.get(2)).getName());
+        }
+
+        CatalogueItem updated = get(2L);
+        assertEquals("Updated Over RSocket", updated.getName());
+        assertEquals(existing.getCreatedOn(), updated.getCreatedOn());
+        assertTrue(updated.getUpdatedOn() != null);
+    }
+
+    @Test
+    public void testUpsertCatalogueItemsRejectsInvalidAndUnknownItems() {
+        CatalogueItem invalid = newItem("Invalid");
+        invalid.setCategory("Unknown");
+        StepVerifier.create(tcp.route(CatalogueRSocketController.UPSERT_ITEMS)
+                .data(Flux.just(invalid))
+                .retrieveFlux(Long.class))
+            .expectError(ApplicationErrorException.class)
+            .verify(Duration.ofSeconds(5));
+
+        CatalogueItem unknown = newItem("Unknown");
+        unknown.setId(99_999_999L);
+        StepVerifier.create(tcp.route(CatalogueRSocketController.UPSERT_ITEMS)
+                .data(Flux.just(unknown))
+                .retrieveFlux(Long.class))
+            .expectErrorSatisfies(ex -> assertTrue(ex.getMessage().contains("99999999")))
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private CatalogueItem get(Long id) {
+        return tcp.route(CatalogueRSocketController.GET_ITEM, id).retrieveMono(CatalogueItem.class).block();
+    }
+
+    private CatalogueItem newItem(String name) {
+        CatalogueItem item = new CatalogueItem();
+        item.setName(name);
+        item.setDescription("Item Desc");
+        item.setCategory("Books");
+        item.setPrice(10.0);
+        item.setInventory(5);
+        // Required by CatalogueItem, replaced by the service
+        item.setCreatedOn(Instant.EPOCH);
+        return item;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.controller;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.rsocket.context.RSocketServerInitializedEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Round trip of the catalogue operations over the REST endpoints and over RSocket (TCP and WebSocket), against
+ * the application started on this machine with its seed data. Admission control is turned off so only the
+ * transports are compared, requests are sent one at a time.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark=CatalogueTransportBenchmark, or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogueTransportBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private int tcpPort;
+
+    private WebClient rest;
+    private RSocketRequester tcp;
+    private RSocketRequester websocket;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringReactiveRestApplication.class)
+            .listeners((ApplicationListener<RSocketServerInitializedEvent>) event ->
+                tcpPort = event.getServer().address().getPort())
+            .run("--server.port=0",
+                "--catalogue.rsocket.tcp.port=0",
+                "--catalogue.admission.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.github.jonhgithub.aws.codepipeline.java.example=WARN");
+        int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+
+        rest = context.getBean(WebClient.Builder.class)
+            .baseUrl("http://localhost:" + port + "/api/v1")
+            .build();
+        tcp = context.getBean(RSocketRequester.Builder.class)
+            .tcp("localhost", tcpPort);
+        websocket = context.getBean(RSocketRequester.Builder.class)
+            .dataMimeType(MimeTypeUtils.APPLICATION_JSON)
+            .websocket(URI.create("ws://localhost:" + port + "/rsocket"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        tcp.dispose();
+        websocket.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    public CatalogueItem getItemRest() {
+        return rest.get().uri(CatalogueController.GET_ITEM, 1L)
+            .retrieve()
+            .bodyToMono(CatalogueItem.class)
+            .block();
+    }
+
+    @Benchmark
+    public CatalogueItem getItemRSocketTcp() {
+        return getItem(tcp);
+    }
+
+    @Benchmark
+    public CatalogueItem getItemRSocketWebSocket() {
+        return getItem(websocket);
+    }
+
+    @Benchmark
+    public List<CatalogueItem> getItemsRest() {
+        return rest.get().uri(CatalogueController.GET_ITEMS)
+            .retrieve()
+            .bodyToFlux(CatalogueItem.class)
+            .collectList()
+            .block();
+    }
+
+    @Benchmark
+    public List<CatalogueItem> getItemsRSocketTcp() {
+        return getItems(tcp);
+    }
+
+    @Benchmark
+    public List<CatalogueItem> getItemsRSocketWebSocket() {
+        return getItems(websocket);
+    }
+
+    private static CatalogueItem getItem(RSocketRequester requester) {
+        return requester.route(CatalogueRSocketController.GET_ITEM, 1L)
+            .retrieveMono(CatalogueItem.class)
+            .block();
+    }
+
+    private static List<CatalogueItem> getItems(RSocketRequester requester) {
+        return requester.route(CatalogueRSocketController.GET_ITEMS)
+            .retrieveFlux(CatalogueItem.class)
+            .collectList()
+            .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CatalogueTransportBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
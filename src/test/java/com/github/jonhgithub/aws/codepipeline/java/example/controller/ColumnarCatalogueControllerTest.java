@@ -0,0 +1,11 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.controller;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the CatalogueControllerTest cases against the in memory columnar storage engine.
+ */
+@ActiveProfiles("columnar")
+public class ColumnarCatalogueControllerTest extends CatalogueControllerTest {
+
+}
@@ -0,0 +1,11 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.controller;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the CatalogueControllerTest cases against three in memory H2 shards.
+ */
+@ActiveProfiles("sharded")
+public class ShardedCatalogueControllerTest extends CatalogueControllerTest {
+
+}
@@ -0,0 +1,97 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Cost of recording statements for the SlowQueryLog: the same lookup by primary key through a pooled H2
+ * connection, as is and through QueryRecordingConnectionFactory with none of the statements over the threshold.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="QueryRecordingBenchmark -prof gc", or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryRecordingBenchmark {
+
+    private static final String SELECT_BY_ID = "SELECT * FROM CATALOGUE_ITEMS WHERE ID = $1";
+
+    private ConnectionPool pool;
+    private DatabaseClient plain;
+    private DatabaseClient recorded;
+
+    @Setup
+    public void setUp() {
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                ConnectionFactories.get("r2dbc:h2:mem:///recording-benchmark"))
+            .initialSize(1)
+            .maxSize(1)
+            .build());
+        plain = DatabaseClient.create(pool);
+        recorded = DatabaseClient.create(new QueryRecordingConnectionFactory(pool,
+            new SlowQueryLog(null, Duration.ofSeconds(10), 20, Duration.ofMinutes(1))));
+
+        plain.sql("CREATE TABLE CATALOGUE_ITEMS(ID BIGINT PRIMARY KEY, ITEM_NAME VARCHAR(255))")
+            .then()
+            .then(plain.sql("INSERT INTO CATALOGUE_ITEMS SELECT X, 'ITEM ' || X FROM SYSTEM_RANGE(1, 1000)").then())
+            .block();
+        // Fill the top N so the recorded path is the fast path of a warm log
+        for (int i = 0; i < 25; i++) {
+            selectById(recorded);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.dispose();
+    }
+
+    @Benchmark
+    public Object selectByIdPlain() {
+        return selectById(plain);
+    }
+
+    @Benchmark
+    public Object selectByIdRecorded() {
+        return selectById(recorded);
+    }
+
+    private static Object selectById(DatabaseClient client) {
+        return client.sql(SELECT_BY_ID)
+            .bind(0, 500L)
+            .fetch()
+            .one()
+            .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(QueryRecordingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
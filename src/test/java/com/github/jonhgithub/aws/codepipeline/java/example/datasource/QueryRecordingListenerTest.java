@@ -0,0 +1,48 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+public class QueryRecordingListenerTest {
+
+    private final ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///recording");
+
+    /**
+     * The rows are requested one by one and read 50ms apart, which is the application's time and not the
+     * database's.
+     */
+    @Test
+    public void testSlowConsumerIsNotASlowQuery() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(null, Duration.ofMillis(100), 5, Duration.ofMinutes(1));
+        DatabaseClient client = DatabaseClient.create(new QueryRecordingConnectionFactory(connectionFactory,
+            slowQueryLog));
+        // Starts the database
+        client.sql("SELECT 1").fetch().rowsUpdated().block();
+
+        List<Long> values = client.sql("SELECT X FROM SYSTEM_RANGE(1, 5)")
+            .map(row -> row.get(0, Long.class))
+            .all()
+            .concatMap(value -> Mono.just(value).delayElement(Duration.ofMillis(50)), 1)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), values);
+        // Released to the pool, the statement is complete
+        client.sql("SELECT 1").fetch().rowsUpdated().block();
+
+        SlowQuery query = slowQueryLog.getSlowest().stream()
+            .filter(slowQuery -> slowQuery.getSql().contains("SYSTEM_RANGE"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(5L, query.getRows());
+        assertTrue(query.getElapsed().compareTo(Duration.ofMillis(100)) < 0, query.toString());
+        assertTrue(query.getConsumerWait().compareTo(Duration.ofMillis(100)) >= 0, query.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Nothing listens on the replica address, reads must be served by the primary.
+ */
+@SpringBootTest(
+    classes = SpringReactiveRestApplication.class,
+    properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///fallback-primary",
+        "catalogue.datasource.replica.enabled=true",
+        "catalogue.datasource.replica.url=r2dbc:h2:file:///${java.io.tmpdir}/catalogue-missing-replica?IFEXISTS=TRUE",
+        "catalogue.datasource.replica.initialize=false"
+    }
+)
+@DirtiesContext
+public class ReadReplicaFallbackTest {
+
+    @Autowired
+    private CatalogueCrudService catalogueCrudService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testReadsFallBackToPrimary() throws Exception {
+        assertEquals("ITEM 0001", catalogueCrudService.getCatalogueItem(1L).block().getName());
+        assertEquals(1000, catalogueCrudService.getCatalogueItems().count().block());
+
+        assertTrue(meterRegistry.get("catalogue.r2dbc.routing.fallback").counter().count() >= 2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
+import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Two in memory H2 databases stand in for the primary and the replica.
+ */
+@SpringBootTest(
+    classes = SpringReactiveRestApplication.class,
+    properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///routing-primary",
+        "catalogue.datasource.replica.enabled=true",
+        "catalogue.datasource.replica.url=r2dbc:h2:mem:///routing-replica",
+        "catalogue.datasource.replica.initialize=true"
+    }
+)
+@DirtiesContext
+public class ReadReplicaRoutingTest {
+
+    private static final String MARKER = "AAA REPLICA ONLY";
+
+    @Autowired
+    private CatalogueCrudService catalogueCrudService;
+
+    @Autowired
+    private ReadWriteRoutingConnectionFactory connectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testReadsAreRoutedToReplica() throws Exception {
+        DatabaseClient.create(connectionFactory.getReplica())
+            .sql("INSERT INTO CATALOGUE_ITEMS(ITEM_NAME, DESCRIPTION, CATEGORY, PRICE, INVENTORY) "
+                + "VALUES('" + MARKER + "', 'Replica', 'Books', 1, 1)")
+            .then()
+            .block();
+
+        CatalogueItem first = catalogueCrudService.getCatalogueItems().blockFirst();
+        assertEquals(MARKER, first.getName());
+        assertEquals(MARKER, catalogueCrudService.getCatalogueItem(first.getId()).block().getName());
+        assertEquals(0L, countByName(connectionFactory.getPrimary(), MARKER));
+
+        assertTrue(meterRegistry.get("catalogue.r2dbc.pool.acquire").tag("pool", "replica").timer().count() > 0);
+    }
+
+    @Test
+    public void testWritesAreRoutedToPrimary() {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setId(null);
+        item.setName("Primary Item");
+
+        catalogueCrudService.addCatalogItem(item).block();
+
+        assertEquals(1L, countByName(connectionFactory.getPrimary(), "Primary Item"));
+        assertEquals(0L, countByName(connectionFactory.getReplica(), "Primary Item"));
+    }
+
+    @Test
+    public void testDeleteLooksUpPrimary() throws Exception {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setId(null);
+        item.setName("Deleted Item");
+        Long id = catalogueCrudService.addCatalogItem(item).block();
+
+        // The replica does not have the item, a lookup routed there would fail with not found
+        catalogueCrudService.deleteCatalogueItem(id).block();
+
+        assertEquals(0L, countByName(connectionFactory.getPrimary(), "Deleted Item"));
+    }
+
+    private long countByName(ConnectionFactory factory, String name) {
+        return DatabaseClient.create(factory)
+            .sql("SELECT COUNT(*) AS TOTAL FROM CATALOGUE_ITEMS WHERE ITEM_NAME = :name")
+            .bind("name", name)
+            .map(row -> row.get("TOTAL", Long.class))
+            .one()
+            .block();
+    }
+}
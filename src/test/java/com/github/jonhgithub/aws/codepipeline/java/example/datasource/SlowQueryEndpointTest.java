@@ -0,0 +1,93 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.SpringReactiveRestApplication;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.service.CatalogueCrudService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Every statement is over a 0ms threshold, so each one is logged and explained.
+ */
+@SpringBootTest(
+    classes = SpringReactiveRestApplication.class,
+    properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///slow-query",
+        "catalogue.datasource.slow-query.threshold=0ms",
+        "catalogue.datasource.slow-query.top=5"
+    }
+)
+@DirtiesContext
+public class SlowQueryEndpointTest {
+
+    private static final String SELECT_BY_ID = "SELECT CATALOGUE_ITEMS.* FROM CATALOGUE_ITEMS WHERE CATALOGUE_ITEMS.ID = $1";
+
+    @Autowired
+    private CatalogueCrudService catalogueCrudService;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    public void testStatementsAreRecordedWithPlans() throws Exception {
+        slowQueryLog.reset();
+
+        assertTrue(catalogueCrudService.getCatalogueItems().count().block() > 100);
+        CatalogueItem item = catalogueCrudService.getCatalogueItem(7L).block();
+        assertEquals(7L, item.getId());
+
+        SlowQuery list = find("ORDER BY");
+        assertTrue(list.getRows() > 100);
+        assertEquals(0, list.getBindCount());
+
+        SlowQuery lookup = find(SELECT_BY_ID);
+        assertEquals(1L, lookup.getRows());
+        assertEquals(1, lookup.getBindCount());
+
+        // Plans are captured asynchronously
+        for (int i = 0; i < 50 && lookup.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(lookup.getPlan().contains("PRIMARY_KEY"), lookup.getPlan());
+    }
+
+    @Test
+    public void testEndpoint() throws Exception {
+        slowQueryLog.reset();
+        catalogueCrudService.getCatalogueItem(1L).block();
+
+        WebTestClient client = WebTestClient.bindToApplicationContext(context).build();
+
+        List<Map<String, Object>> queries = client.get()
+            .uri("/actuator/slowqueries")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(new ParameterizedTypeReference<List<Map<String, Object>>>() { })
+            .returnResult()
+            .getResponseBody();
+        assertTrue(queries.stream().anyMatch(query -> ((String) query.get("sql")).contains(SELECT_BY_ID)), queries.toString());
+
+        client.delete().uri("/actuator/slowqueries").exchange().expectStatus().is2xxSuccessful();
+        assertTrue(slowQueryLog.getSlowest().isEmpty());
+    }
+
+    private SlowQuery find(String sql) {
+        return slowQueryLog.getSlowest().stream()
+            .filter(query -> query.getSql().contains(sql))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError(sql + " not recorded in " + slowQueryLog.getSlowest()));
+    }
+}
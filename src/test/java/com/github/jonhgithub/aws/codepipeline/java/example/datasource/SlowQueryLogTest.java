@@ -0,0 +1,60 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(null, Duration.ofSeconds(10), 3, Duration.ofMinutes(1));
+
+    @Test
+    public void testKeepsSlowestDistinctStatements() {
+        slowQueryLog.record("SELECT 1", 0, 1, 10, 0, null);
+        slowQueryLog.record("SELECT 2", 1, 2, 50, 0, null);
+        slowQueryLog.record("SELECT 3", 2, 3, 30, 0, null);
+        slowQueryLog.record("SELECT 4", 3, 4, 5, 0, null);
+        slowQueryLog.record("SELECT 2", 1, 2, 20, 0, null);
+        slowQueryLog.record("SELECT 3", 2, 3, 40, 0, null);
+        slowQueryLog.record("SELECT 5", 0, 0, 45, 0, null);
+
+        List<SlowQuery> slowest = slowQueryLog.getSlowest();
+        assertEquals(List.of("SELECT 2", "SELECT 5", "SELECT 3"),
+            slowest.stream().map(SlowQuery::getSql).collect(Collectors.toList()));
+        assertEquals(Duration.ofNanos(50), slowest.get(0).getElapsed());
+        assertEquals(1, slowest.get(0).getBindCount());
+        assertEquals(2L, slowest.get(0).getRows());
+        assertNull(slowest.get(0).getPlan());
+    }
+
+    @Test
+    public void testRanksByDatabaseTimeOnly() {
+        slowQueryLog.record("SELECT 1", 0, 100, 10, 1_000, null);
+        slowQueryLog.record("SELECT 2", 0, 1, 20, 0, null);
+
+        List<SlowQuery> slowest = slowQueryLog.getSlowest();
+        assertEquals(List.of("SELECT 2", "SELECT 1"),
+            slowest.stream().map(SlowQuery::getSql).collect(Collectors.toList()));
+        assertEquals(Duration.ofNanos(10), slowest.get(1).getElapsed());
+        assertEquals(Duration.ofNanos(1_000), slowest.get(1).getConsumerWait());
+    }
+
+    @Test
+    public void testReset() {
+        slowQueryLog.record("SELECT 1", 0, 1, 10, 0, null);
+        slowQueryLog.record("SELECT 2", 0, 1, 20, 0, null);
+        slowQueryLog.record("SELECT 3", 0, 1, 30, 0, null);
+
+        slowQueryLog.reset();
+        assertTrue(slowQueryLog.getSlowest().isEmpty());
+
+        // The floor of the full top N is cleared as well
+        slowQueryLog.record("SELECT 4", 0, 1, 1, 0, null);
+        assertEquals(1, slowQueryLog.getSlowest().size());
+    }
+}
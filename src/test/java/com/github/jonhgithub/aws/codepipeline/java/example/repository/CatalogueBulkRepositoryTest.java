@@ -0,0 +1,109 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+public class CatalogueBulkRepositoryTest {
+
+    private static final int ROWS = 2500;
+
+    private R2dbcEntityTemplate template;
+    private CatalogueBulkRepositoryImpl repository;
+
+    @BeforeEach
+    public void createDatabase() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+            "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql")).execute(connectionFactory).block();
+        DatabaseClient.create(connectionFactory)
+            .sql("INSERT INTO CATALOGUE_ITEMS(ITEM_NAME, DESCRIPTION, CATEGORY, PRICE, INVENTORY) "
+                + "SELECT 'Item ' || X, 'Item Desc', CASEWHEN(MOD(X, 2) = 0, 'Books', 'Games'), X, X "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")")
+            .then()
+            .block();
+
+        template = new R2dbcEntityTemplate(connectionFactory);
+        repository = new CatalogueBulkRepositoryImpl(template);
+    }
+
+    @Test
+    public void testChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        ids.addAll(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()));
+
+        List<List<Long>> chunks = CatalogueBulkRepository.chunks(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(CatalogueBulkRepository.CHUNK_SIZE, chunks.get(0).size());
+        assertEquals(500, chunks.get(2).size());
+        assertEquals(2500L, chunks.get(2).get(499));
+        assertEquals(0, CatalogueBulkRepository.chunks(new ArrayList<>()).size());
+    }
+
+    @Test
+    public void testPatchAllByIdAcrossChunks() {
+        // Three chunks, duplicates and unknown ids are not counted
+        List<Long> ids = LongStream.rangeClosed(2, ROWS + 100).boxed().collect(Collectors.toList());
+        ids.add(2L);
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setInventory(0);
+        Instant updatedOn = Instant.ofEpochSecond(1_600_000_000L);
+
+        assertEquals(ROWS - 1L, repository.patchAllById(ids, patch, updatedOn).block());
+
+        CatalogueItem patched = find(2400L);
+        assertEquals(0, patched.getInventory());
+        assertEquals(2400.0, patched.getPrice());
+        assertEquals("Books", patched.getCategory());
+        assertEquals(updatedOn, patched.getUpdatedOn());
+        assertEquals(1, find(1L).getInventory());
+        assertNull(find(1L).getUpdatedOn());
+    }
+
+    @Test
+    public void testPatchAllByCategory() {
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setPrice(0.5);
+        patch.setCategory("Music");
+
+        assertEquals(ROWS / 2L, repository.patchAllByCategory("Books", patch, Instant.now()).block());
+        assertEquals(0L, repository.patchAllByCategory("Books", patch, Instant.now()).block());
+        assertEquals(0.5, find(2L).getPrice());
+        assertEquals("Music", find(2L).getCategory());
+        assertEquals("Games", find(3L).getCategory());
+    }
+
+    @Test
+    public void testRemoveAllByIdAndCategory() {
+        List<Long> ids = LongStream.rangeClosed(1, 2100).boxed().collect(Collectors.toList());
+        ids.add(99_999L);
+
+        assertEquals(2100L, repository.removeAllById(ids).block());
+        assertEquals(200L, repository.removeAllByCategory("Games").block());
+        assertEquals(200L, template.count(Query.empty(), CatalogueItem.class).block());
+        assertNull(find(2101L));
+    }
+
+    private CatalogueItem find(long id) {
+        return template.selectOne(Query.query(Criteria.where("id").is(id)), CatalogueItem.class).block();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+
+/**
+ * Compares the columnar storage engine with an R2DBC repository over an in memory H2 database holding the same
+ * items: latency of a lookup by id and of a sorted listing, and the heap retained per stored item. The retained
+ * heap is printed once at setup, from the used heap after a full GC before and after each store is loaded.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="ColumnarCatalogueRepositoryBenchmark -prof gc", or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarCatalogueRepositoryBenchmark {
+
+    private static final int ITEMS = 10_000;
+    private static final long ID = ITEMS / 2;
+    private static final Sort BY_NAME = Sort.by("name");
+
+    /**
+     * Repository Spring Data generates for CatalogueItem, without the bulk fragment of CatalogueRepository.
+     */
+    public interface R2dbcCatalogueRepository extends ReactiveSortingRepository<CatalogueItem, Long> {
+    }
+
+    private ConnectionPool pool;
+    private ColumnarCatalogueRepository columnar;
+    private R2dbcCatalogueRepository r2dbc;
+
+    @Setup
+    public void setUp() {
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                ConnectionFactories.get("r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1"))
+            .initialSize(1)
+            .maxSize(1)
+            .build());
+        new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql")).execute(pool).block();
+        r2dbc = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(pool)).getRepository(R2dbcCatalogueRepository.class);
+        columnar = new ColumnarCatalogueRepository();
+
+        // Both stores are created empty and used once first, so only the items count towards the retained heap.
+        // Saving sets the ids, each store gets its own instances.
+        List<CatalogueItem> columnarItems = items();
+        List<CatalogueItem> r2dbcItems = items();
+        columnar.saveAll(columnarItems.subList(0, 1)).blockLast();
+        r2dbc.saveAll(r2dbcItems.subList(0, 1)).blockLast();
+
+        long baseline = usedHeap();
+        columnar.saveAll(columnarItems.subList(1, ITEMS)).blockLast();
+        long columnarHeap = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        r2dbc.saveAll(r2dbcItems.subList(1, ITEMS)).blockLast();
+        long r2dbcHeap = usedHeap() - baseline;
+
+        System.out.printf("Retained heap per item for %d items: columnar %d, H2 %d bytes%n", ITEMS,
+            columnarHeap / (ITEMS - 1), r2dbcHeap / (ITEMS - 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.dispose();
+    }
+
+    @Benchmark
+    public CatalogueItem findByIdColumnar() {
+        return columnar.findById(ID).block();
+    }
+
+    @Benchmark
+    public CatalogueItem findByIdR2dbc() {
+        return r2dbc.findById(ID).block();
+    }
+
+    @Benchmark
+    public List<CatalogueItem> findAllSortedColumnar() {
+        return columnar.findAll(BY_NAME).collectList().block();
+    }
+
+    @Benchmark
+    public List<CatalogueItem> findAllSortedR2dbc() {
+        return r2dbc.findAll(BY_NAME).collectList().block();
+    }
+
+    private static List<CatalogueItem> items() {
+        Instant now = Instant.now();
+        return IntStream.rangeClosed(1, ITEMS).mapToObj(index -> {
+            CatalogueItem item = new CatalogueItem();
+            item.setName(String.format("Item %05d", (index * 7919) % 10007));
+            item.setDescription("Item description " + index % 100);
+            item.setCategory("Books");
+            item.setPrice((double) index);
+            item.setInventory(index);
+            item.setCreatedOn(now);
+            return item;
+        }).collect(Collectors.toList());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ColumnarCatalogueRepositoryBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
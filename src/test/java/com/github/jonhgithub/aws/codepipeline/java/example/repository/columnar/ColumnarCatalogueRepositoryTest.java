@@ -0,0 +1,193 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueSeedLoader;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Sort;
+
+public class ColumnarCatalogueRepositoryTest {
+
+    private final ColumnarCatalogueRepository repository = new ColumnarCatalogueRepository();
+
+    @Test
+    public void testSaveAndDeleteAcrossSegments() {
+        int count = ColumnarTable.SEGMENT_SIZE * 3 + 5;
+        repository.saveAll(items(count)).blockLast();
+
+        // Deleting moves the last rows into the freed ones, every remaining id must still resolve
+        List<Long> deleted = IntStream.rangeClosed(1, count)
+            .filter(id -> id % 3 == 0)
+            .mapToObj(Long::valueOf)
+            .collect(Collectors.toList());
+        repository.deleteAllById(deleted).block();
+
+        assertEquals(count - deleted.size(), repository.count().block());
+        for (long id = 1; id <= count; id++) {
+            CatalogueItem item = repository.findById(id).block();
+            if (id % 3 == 0) {
+                assertNull(item);
+            }
+            else {
+                assertEquals(id, item.getId());
+                assertEquals(String.format("Item %05d", id), item.getName());
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateDoesNotChangePublishedSnapshot() {
+        repository.saveAll(items(10)).blockLast();
+        List<CatalogueItem> before = repository.findAll(Sort.by("id")).collectList().block();
+
+        CatalogueItem item = repository.findById(5L).block();
+        item.setPrice(99.5);
+        item.setCategory("Music");
+        item.setUpdatedOn(Instant.ofEpochSecond(1_600_000_000L, 42));
+        repository.save(item).block();
+
+        assertEquals(item, repository.findById(5L).block());
+        assertEquals(5.0, before.get(4).getPrice());
+        assertNull(before.get(4).getUpdatedOn());
+    }
+
+    @Test
+    public void testDeleteDoesNotChangePublishedIndex() {
+        ColumnarTable.Editor editor = new ColumnarTable(new StringDictionary()).edit();
+        items(ColumnarTable.SEGMENT_SIZE + 5).forEach(item -> {
+            item.setId((long) editor.size() + 1);
+            editor.insert(item);
+        });
+        ColumnarTable before = editor.publish();
+
+        ColumnarTable.Editor next = before.edit();
+        next.delete(before.row(1L));
+        ColumnarTable after = next.publish();
+
+        // The last row moved into the deleted one, only the new snapshot sees it there
+        long last = ColumnarTable.SEGMENT_SIZE + 5;
+        assertEquals(0, before.row(1L));
+        assertEquals(LongIntHashMap.NO_VALUE, after.row(1L));
+        assertEquals(last - 1, before.row(last));
+        assertEquals(0, after.row(last));
+        for (long id = 2; id < last; id++) {
+            assertEquals(before.row(id), after.row(id));
+        }
+    }
+
+    @Test
+    public void testFindAllSorted() {
+        repository.saveAll(items(50)).blockLast();
+
+        List<Long> ids = repository.findAll(Sort.by(Sort.Direction.DESC, "price"))
+            .map(CatalogueItem::getId)
+            .collectList()
+            .block();
+
+        assertEquals(50, ids.size());
+        assertEquals(50L, ids.get(0));
+        assertEquals(1L, ids.get(49));
+    }
+
+    @Test
+    public void testConstraints() {
+        CatalogueItem unknown = items(1).get(0);
+        unknown.setId(-1L);
+        assertThrows(TransientDataAccessResourceException.class, () -> repository.save(unknown).block());
+
+        CatalogueItem invalid = new CatalogueItem();
+        invalid.setName("Item Name");
+        assertThrows(DataIntegrityViolationException.class, () -> repository.save(invalid).block());
+        assertFalse(repository.existsById(1L).block());
+    }
+
+    @Test
+    public void testBulkPatchAndRemoveAcrossSegments() {
+        int count = ColumnarTable.SEGMENT_SIZE * 2 + 10;
+        repository.saveAll(items(count)).blockLast();
+
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setInventory(0);
+        Instant updatedOn = Instant.ofEpochSecond(1_600_000_000L);
+        assertEquals(3L, repository.patchAllById(Arrays.asList(1L, 1500L, 2058L, 99_999L), patch, updatedOn).block());
+        assertEquals(0, repository.findById(1500L).block().getInventory());
+        assertEquals(updatedOn, repository.findById(2058L).block().getUpdatedOn());
+
+        patch.setCategory("Music");
+        assertEquals((long) count / 2, repository.patchAllByCategory("Books", patch, updatedOn).block());
+        assertEquals(0L, repository.patchAllByCategory("Books", patch, updatedOn).block());
+
+        // Deleting every Games item moves rows from the end, each remaining item must stay intact
+        assertEquals((long) count / 2, repository.removeAllByCategory("Games").block());
+        assertEquals((long) count / 2, repository.count().block());
+        for (long id = 2; id <= count; id += 2) {
+            CatalogueItem item = repository.findById(id).block();
+            assertEquals(String.format("Item %05d", id), item.getName());
+            assertEquals("Music", item.getCategory());
+        }
+
+        assertEquals(2L, repository.removeAllById(Arrays.asList(2L, 4L, 4L, 5L)).block());
+        assertEquals((long) count / 2 - 2, repository.count().block());
+    }
+
+    @Test
+    public void testBulkPatchChangesOnlyPatchedFields() {
+        repository.saveAll(items(10)).blockLast();
+        List<CatalogueItem> before = repository.findAll(Sort.by("id")).collectList().block();
+
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setPrice(0.5);
+        Instant updatedOn = Instant.ofEpochSecond(1_600_000_000L, 7);
+        assertEquals(2L, repository.patchAllById(Arrays.asList(3L, 3L, 4L, 42L), patch, updatedOn).block());
+
+        CatalogueItem patched = repository.findById(4L).block();
+        assertEquals(0.5, patched.getPrice());
+        assertEquals(4, patched.getInventory());
+        assertEquals("Books", patched.getCategory());
+        assertEquals(updatedOn, patched.getUpdatedOn());
+        assertEquals(before.get(4), repository.findById(5L).block());
+
+        // A category no item ever had is not in the dictionary
+        assertEquals(0L, repository.patchAllByCategory("Unknown", patch, updatedOn).block());
+        assertEquals(before.get(0), repository.findById(1L).block());
+    }
+
+    @Test
+    public void testLoadSeedData() {
+        List<CatalogueItem> items = new CatalogueSeedLoader(new ClassPathResource("schema/data.sql")).load();
+        repository.saveAll(items).blockLast();
+
+        CatalogueItem first = repository.findAll(Sort.by("name")).blockFirst();
+        assertEquals(1L, first.getId());
+        assertEquals("ITEM 0001", first.getName());
+        assertEquals("Books", first.getCategory());
+        assertTrue(repository.count().block() >= 1000);
+    }
+
+    private List<CatalogueItem> items(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(index -> {
+            CatalogueItem item = new CatalogueItem();
+            item.setName(String.format("Item %05d", index));
+            item.setDescription("Item Desc");
+            item.setCategory(index % 2 == 0 ? "Books" : "Games");
+            item.setPrice((double) index);
+            item.setInventory(index);
+            item.setCreatedOn(Instant.now());
+            return item;
+        }).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.sharded;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import reactor.core.publisher.Flux;
+
+/**
+ * Items written and read per second by shard count: batches saved with saveAll and a sorted listing merged from
+ * every shard. Shards are in memory H2 databases of this JVM, each with its own pool. H2 runs a statement on the
+ * subscribing thread, so shards are not written in parallel here as they are over the network; the figures show
+ * the cost of routing and merging rather than the write scaling of separate database servers.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark=ShardedCatalogueRepositoryBenchmark, or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedCatalogueRepositoryBenchmark {
+
+    private static final int BATCH = 100;
+    private static final int LISTED = 1000;
+
+    @Param({"1", "2", "4"})
+    private int shards;
+
+    private List<ConnectionPool> pools;
+    private ShardedCatalogueRepository repository;
+
+    @Setup
+    public void setUp() {
+        String database = UUID.randomUUID().toString();
+        pools = IntStream.range(0, shards)
+            .mapToObj(shard -> new ConnectionPool(ConnectionPoolConfiguration.builder(
+                    ConnectionFactories.get("r2dbc:h2:mem:///" + database + "-" + shard + "?options=DB_CLOSE_DELAY=-1"))
+                .name("shard-" + shard)
+                .initialSize(4)
+                .maxSize(4)
+                .build()))
+            .collect(Collectors.toList());
+
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql"));
+        Flux.fromIterable(pools).concatMap(schema::execute).blockLast();
+
+        repository = new ShardedCatalogueRepository(pools);
+    }
+
+    /**
+     * Every iteration starts from the same catalogue, the writes of the previous one are removed.
+     */
+    @Setup(Level.Iteration)
+    public void resetCatalogue() {
+        repository.deleteAll().block();
+        repository.saveAll(items(LISTED)).blockLast();
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<CatalogueItem> saveAll() {
+        return repository.saveAll(items(BATCH)).collectList().block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LISTED)
+    public List<CatalogueItem> findAllSorted() {
+        return repository.findAll(Sort.by("name")).collectList().block();
+    }
+
+    private static List<CatalogueItem> items(int count) {
+        Instant now = Instant.now();
+        return IntStream.rangeClosed(1, count).mapToObj(index -> {
+            CatalogueItem item = new CatalogueItem();
+            item.setName(String.format("Item %05d", (index * 7919) % 10007));
+            item.setDescription("Item Desc");
+            item.setCategory("Books");
+            item.setPrice((double) index);
+            item.setInventory(index);
+            item.setCreatedOn(now);
+            return item;
+        }).collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ShardedCatalogueRepositoryBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.repository.sharded;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItemPatch;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueBulkRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+public class ShardedCatalogueRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private List<ConnectionFactory> connectionFactories;
+    private ShardedCatalogueRepository repository;
+
+    @BeforeEach
+    public void createShards() {
+        String database = UUID.randomUUID().toString();
+        connectionFactories = IntStream.range(0, SHARDS)
+            .mapToObj(shard -> ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + database + "-" + shard + "?options=DB_CLOSE_DELAY=-1"))
+            .collect(Collectors.toList());
+
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql"));
+        Flux.fromIterable(connectionFactories).concatMap(schema::execute).blockLast();
+
+        repository = new ShardedCatalogueRepository(connectionFactories);
+    }
+
+    @Test
+    public void testIdsAreUniqueAndIdentifyTheShard() {
+        List<CatalogueItem> saved = repository.saveAll(items(10)).collectList().block();
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()),
+            saved.stream().map(CatalogueItem::getId).collect(Collectors.toList()));
+        for (CatalogueItem item : saved) {
+            assertEquals((item.getId() - 1) % SHARDS, repository.shardOf(item.getId()));
+            assertEquals(item.getName(), repository.findById(item.getId()).block().getName());
+        }
+
+        assertEquals(4L, rows(0));
+        assertEquals(3L, rows(1));
+        assertEquals(3L, rows(2));
+        assertEquals(10L, repository.count().block());
+    }
+
+    @Test
+    public void testFindAllMergesShardsInOrder() {
+        List<CatalogueItem> items = items(50);
+        repository.saveAll(items).blockLast();
+
+        List<String> names = repository.findAll(Sort.by("name")).map(CatalogueItem::getName).collectList().block();
+        assertEquals(items.stream().map(CatalogueItem::getName).sorted().collect(Collectors.toList()), names);
+
+        List<Double> prices = repository.findAll(Sort.by(Sort.Direction.DESC, "price"))
+            .map(CatalogueItem::getPrice)
+            .collectList()
+            .block();
+        assertEquals(items.stream().map(CatalogueItem::getPrice).sorted(Comparator.reverseOrder())
+            .collect(Collectors.toList()), prices);
+
+        assertEquals(names.subList(0, 3),
+            repository.findAll(Sort.by("name")).take(3).map(CatalogueItem::getName).collectList().block());
+    }
+
+    @Test
+    public void testUpdateAndDeleteAreRoutedById() {
+        repository.saveAll(items(6)).blockLast();
+
+        CatalogueItem item = repository.findById(5L).block();
+        item.setPrice(99.5);
+        item.setUpdatedOn(Instant.now());
+        assertSame(item, repository.save(item).block());
+        assertEquals(5L, item.getId());
+        assertEquals(99.5, repository.findById(5L).block().getPrice());
+
+        CatalogueItem unknown = repository.findById(6L).block();
+        unknown.setId(60L);
+        assertThrows(TransientDataAccessResourceException.class, () -> repository.save(unknown).block());
+        assertEquals(60L, unknown.getId());
+
+        assertEquals(Arrays.asList(2L, 4L, 5L), repository.findAllById(Arrays.asList(2L, 4L, 5L, 42L))
+            .map(CatalogueItem::getId).sort().collectList().block());
+
+        repository.deleteAllById(Arrays.asList(1L, 2L, 3L)).block();
+        repository.deleteById(4L).block();
+        assertNull(repository.findById(4L).block());
+        assertFalse(repository.existsById(1L).block());
+        assertTrue(repository.existsById(5L).block());
+        assertEquals(2L, repository.count().block());
+    }
+
+    @Test
+    public void testBulkOperationsSpanShards() {
+        repository.saveAll(items(20)).blockLast();
+
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setPrice(0.5);
+        patch.setCategory("Games");
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 6L, 99L);
+        assertEquals(6L, repository.patchAllById(ids, patch, Instant.now()).block());
+        assertEquals(0.5, repository.findById(6L).block().getPrice());
+
+        assertEquals(14L, repository.patchAllByCategory("Books", patch, Instant.now()).block());
+        assertEquals(3L, repository.removeAllById(Arrays.asList(7L, 8L, 9L, 99L)).block());
+        assertEquals(17L, repository.removeAllByCategory("Games").block());
+        assertEquals(0L, repository.count().block());
+    }
+
+    @Test
+    public void testBulkOperationsSpanChunksOfEveryShard() {
+        // 1100 rows per shard, global ids 1 to 3300, so each shard gets two chunks
+        int rowsPerShard = CatalogueBulkRepository.CHUNK_SIZE + 100;
+        Flux.fromIterable(connectionFactories)
+            .concatMap(factory -> DatabaseClient.create(factory)
+                .sql("INSERT INTO CATALOGUE_ITEMS(ITEM_NAME, DESCRIPTION, CATEGORY, PRICE, INVENTORY) "
+                    + "SELECT 'Item ' || X, 'Item Desc', 'Books', X, X FROM SYSTEM_RANGE(1, " + rowsPerShard + ")")
+                .then())
+            .blockLast();
+        long total = (long) rowsPerShard * SHARDS;
+
+        CatalogueItemPatch patch = new CatalogueItemPatch();
+        patch.setInventory(0);
+        List<Long> ids = LongStream.rangeClosed(1, total + 10).boxed().collect(Collectors.toList());
+        assertEquals(total, repository.patchAllById(ids, patch, Instant.now()).block());
+        for (long id : Arrays.asList(1L, 3001L, total)) {
+            CatalogueItem item = repository.findById(id).block();
+            assertEquals(0, item.getInventory());
+            assertEquals((double) localId(id), item.getPrice());
+        }
+
+        assertEquals(total - 2, repository.removeAllById(LongStream.rangeClosed(3, total).boxed()
+            .collect(Collectors.toList())).block());
+        assertEquals(2L, repository.count().block());
+        assertEquals(1L, rows(0));
+        assertEquals(1L, rows(1));
+        assertEquals(0L, rows(2));
+    }
+
+    private long localId(long id) {
+        return (id - 1) / SHARDS + 1;
+    }
+
+    private long rows(int shard) {
+        return DatabaseClient.create(connectionFactories.get(shard))
+            .sql("SELECT COUNT(*) AS TOTAL FROM CATALOGUE_ITEMS")
+            .map(row -> row.get("TOTAL", Long.class))
+            .one()
+            .block();
+    }
+
+    private List<CatalogueItem> items(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(index -> {
+            CatalogueItem item = new CatalogueItem();
+            // Names do not follow insertion order, so every shard holds names from the whole range
+            item.setName(String.format("Item %05d", (index * 7919) % 10007));
+            item.setDescription("Item Desc");
+            item.setCategory("Books");
+            item.setPrice((double) index);
+            item.setInventory(index);
+            item.setCreatedOn(Instant.now());
+            return item;
+        }).collect(Collectors.toList());
+    }
+}
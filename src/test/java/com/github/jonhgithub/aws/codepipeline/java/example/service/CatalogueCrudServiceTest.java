@@ -0,0 +1,94 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import com.github.jonhgithub.aws.codepipeline.java.example.repository.CatalogueRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class CatalogueCrudServiceTest {
+
+    private final CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+    private final CatalogueCrudService catalogueCrudService = new CatalogueCrudService(catalogueRepository);
+
+    /**
+     * Items arrive much faster than the repository writes them, so batches close on the timeout while earlier
+     * ones are still being written. The producer must be slowed down through its requests instead of the
+     * batches piling up.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpsertWithSlowRepository() {
+        AtomicLong ids = new AtomicLong();
+        when(catalogueRepository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            Iterable<CatalogueItem> items = invocation.getArgument(0);
+            return Flux.fromIterable(items)
+                .doOnNext(item -> item.setId(ids.incrementAndGet()))
+                .delaySubscription(Duration.ofSeconds(1));
+        });
+        int count = 2000;
+        AtomicLong produced = new AtomicLong();
+        AtomicLong maxPending = new AtomicLong();
+
+        StepVerifier.withVirtualTime(() -> catalogueCrudService.upsertCatalogueItems(Flux.range(0, count)
+                    .delayElements(Duration.ofMillis(1))
+                    .map(index -> newItem())
+                    .doOnNext(item -> produced.incrementAndGet()))
+                .index()
+                .doOnNext(id -> maxPending.accumulateAndGet(produced.get() - id.getT1(), Math::max))
+                .map(id -> id.getT2())
+                .collectList())
+            .thenAwait(Duration.ofHours(1))
+            .assertNext(saved -> assertEquals(LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList()), saved))
+            .verifyComplete();
+
+        // The batch being written, the one collected ahead and what publish prefetched
+        assertTrue(maxPending.get() <= 3L * CatalogueCrudService.UPSERT_BATCH_SIZE);
+    }
+
+    /**
+     * An item arriving just before a fixed tick must still wait for the whole timeout, counted from itself.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpsertTimeoutStartsWithTheBatch() {
+        AtomicLong ids = new AtomicLong();
+        when(catalogueRepository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            Iterable<CatalogueItem> items = invocation.getArgument(0);
+            return Flux.fromIterable(items).doOnNext(item -> item.setId(ids.incrementAndGet()));
+        });
+        Duration arrival = CatalogueCrudService.UPSERT_BATCH_TIMEOUT.multipliedBy(3).dividedBy(4);
+
+        StepVerifier.withVirtualTime(() -> catalogueCrudService.upsertCatalogueItems(
+                Flux.concat(Mono.delay(arrival).map(tick -> newItem()), Flux.never())))
+            .expectSubscription()
+            .expectNoEvent(arrival.plus(CatalogueCrudService.UPSERT_BATCH_TIMEOUT).minusMillis(1))
+            .thenAwait(Duration.ofMillis(1))
+            .expectNext(1L)
+            .thenCancel()
+            .verify();
+    }
+
+    private CatalogueItem newItem() {
+        CatalogueItem item = new CatalogueItem();
+        item.setName("Item");
+        item.setDescription("Item Desc");
+        item.setCategory("Books");
+        item.setPrice(1.0);
+        item.setInventory(1);
+        item.setCreatedOn(Instant.EPOCH);
+        return item;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.validation;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * Per item validation cost of Bean Validation and of CatalogueItemValidator, for a valid item as in a batch
+ * ingestion and for an item failing every constraint.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="CatalogueItemValidatorBenchmark -prof gc", or run main.
+ *
+ * @author Jon Harvey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueItemValidatorBenchmark {
+
+    private final CatalogueItemValidator validator = new CatalogueItemValidator();
+    private final LocalValidatorFactoryBean beanValidator = new LocalValidatorFactoryBean();
+
+    private CatalogueItem valid;
+    private CatalogueItem invalid;
+
+    @Setup
+    public void setUp() {
+        beanValidator.afterPropertiesSet();
+
+        valid = new CatalogueItem();
+        valid.setName("Paperback edition");
+        valid.setDescription("A paperback book");
+        valid.setCategory("books");
+        valid.setPrice(19.99);
+        valid.setInventory(250);
+        valid.setCreatedOn(Instant.EPOCH);
+
+        invalid = new CatalogueItem();
+        invalid.setName("");
+        invalid.setCategory("Unknown");
+    }
+
+    @TearDown
+    public void tearDown() {
+        beanValidator.close();
+    }
+
+    @Benchmark
+    public Errors validItemCatalogueItemValidator() {
+        return validate(validator, valid);
+    }
+
+    @Benchmark
+    public Errors validItemBeanValidation() {
+        return validate(beanValidator, valid);
+    }
+
+    @Benchmark
+    public Errors invalidItemCatalogueItemValidator() {
+        return validate(validator, invalid);
+    }
+
+    @Benchmark
+    public Errors invalidItemBeanValidation() {
+        return validate(beanValidator, invalid);
+    }
+
+    private static Errors validate(Validator validator, CatalogueItem item) {
+        Errors errors = new BeanPropertyBindingResult(item, "catalogueItem");
+        validator.validate(item, errors);
+        return errors;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CatalogueItemValidatorBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.jonhgithub.aws.codepipeline.java.example.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jonhgithub.aws.codepipeline.java.example.CatalogueItemGenerator;
+import com.github.jonhgithub.aws.codepipeline.java.example.model.CatalogueItem;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * Checks the straight-line validator reports the same messages as Bean Validation.
+ */
+public class CatalogueItemValidatorTest {
+
+    private final CatalogueItemValidator validator = new CatalogueItemValidator();
+
+    @Test
+    public void testValidItem() {
+        CatalogueItem item = CatalogueItemGenerator.generateCatalogueItem();
+        item.setCategory("eLeCtRoNiCs");
+
+        assertFalse(validate(validator, item).hasErrors());
+    }
+
+    @Test
+    public void testInvalidItemMatchesBeanValidation() {
+        CatalogueItem item = new CatalogueItem();
+        item.setName("");
+        item.setCategory("INVALID");
+
+        LocalValidatorFactoryBean beanValidator = new LocalValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+
+        Set<String> expected = messages(validate(beanValidator, item));
+        assertEquals(5, expected.size());
+        assertEquals(expected, messages(validate(validator, item)));
+    }
+
+    @Test
+    public void testIsValidCategory() {
+        assertTrue(validator.isValidCategory("Books"));
+        assertFalse(validator.isValidCategory(""));
+        assertFalse(validator.isValidCategory(null));
+        assertFalse(validator.isValidCategory("Book"));
+    }
+
+    @Test
+    public void testConstraintsMustMatchTheImplementedChecks() {
+        CatalogueItemValidator.checkConstraints(CatalogueItem.class, CatalogueItemValidator.CONSTRAINTS);
+
+        IllegalStateException extra = assertThrows(IllegalStateException.class,
+            () -> CatalogueItemValidator.checkConstraints(ExtraConstraint.class, Map.of("name", NotEmpty.class)));
+        assertTrue(extra.getMessage().contains("@Size on name"));
+
+        IllegalStateException missing = assertThrows(IllegalStateException.class,
+            () -> CatalogueItemValidator.checkConstraints(ExtraConstraint.class,
+                Map.of("name", NotEmpty.class, "price", NotNull.class)));
+        assertTrue(missing.getMessage().contains("missing @NotNull on price"));
+
+        IllegalStateException grouped = assertThrows(IllegalStateException.class,
+            () -> CatalogueItemValidator.checkConstraints(GroupedConstraint.class, Map.of("name", NotEmpty.class)));
+        assertTrue(grouped.getMessage().contains("@NotEmpty on name"));
+    }
+
+    private Errors validate(org.springframework.validation.Validator validator, CatalogueItem item) {
+        Errors errors = new BeanPropertyBindingResult(item, "catalogueItem");
+        validator.validate(item, errors);
+        return errors;
+    }
+
+    private Set<String> messages(Errors errors) {
+        return errors.getAllErrors().stream()
+            .map(ObjectError::getDefaultMessage)
+            .collect(Collectors.toSet());
+    }
+
+    static class ExtraConstraint {
+
+        @NotEmpty
+        @Size(max = 10)
+        private String name;
+    }
+
+    static class GroupedConstraint {
+
+        @NotEmpty(groups = Default.class)
+        private String name;
+    }
+}